@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dao.BookingStorage;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.generator.DatasetGenerator;
+import ru.practicum.shareit.generator.GeneratorSettings;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пересечения бронирований: дерево интервалов BookingIntervalIndex против запроса
+ * BookingStorage.existsOverlapping на встроенной H2 (профиль test) с данными {@link DatasetGenerator}.
+ * Проверяется самая бронируемая вещь набора на случайных двухдневных интервалах её истории.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingOverlapBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({"2000"})
+    private int users;
+
+    @Param({"20000"})
+    private int items;
+
+    @Param({"200000"})
+    private int bookings;
+
+    @Param({"42"})
+    private long seed;
+
+    private ConfigurableApplicationContext context;
+    private BookingIntervalIndex intervalIndex;
+    private BookingStorage bookingStorage;
+    private long itemId;
+    private final LocalDateTime[] starts = new LocalDateTime[PROBES];
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ShareItServer.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setAdditionalProfiles("test");
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:shareit-overlap-bench;DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.transaction=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+
+        GeneratorSettings settings = new GeneratorSettings();
+        settings.setSeed(seed);
+        settings.setUsers(users);
+        settings.setItems(items);
+        settings.setBookings(bookings);
+        settings.setRequests(users / 10);
+        DatasetGenerator generator = context.getBean(DatasetGenerator.class);
+        generator.generate(settings);
+        generator.alignIdentities();
+        intervalIndex = context.getBean(BookingIntervalIndex.class);
+        // индекс строится при старте, до заполнения базы
+        intervalIndex.rebuild();
+        bookingStorage = context.getBean(BookingStorage.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        itemId = jdbcTemplate.queryForObject(
+                "select item_id from bookings group by item_id order by count(*) desc limit 1", Long.class);
+        LocalDateTime first = jdbcTemplate.queryForObject(
+                "select min(start_date) from bookings where item_id = ?", LocalDateTime.class, itemId);
+        LocalDateTime last = jdbcTemplate.queryForObject(
+                "select max(end_date) from bookings where item_id = ?", LocalDateTime.class, itemId);
+        long span = Math.max(1, ChronoUnit.MINUTES.between(first, last));
+        Random random = new Random(seed);
+        for (int i = 0; i < PROBES; i++) {
+            starts[i] = first.plusMinutes((long) (random.nextDouble() * span));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean indexOverlaps() {
+        LocalDateTime start = nextStart();
+        return intervalIndex.overlaps(itemId, start, start.plusDays(2));
+    }
+
+    @Benchmark
+    public boolean sqlOverlaps() {
+        LocalDateTime start = nextStart();
+        return bookingStorage.existsOverlapping(itemId, start, start.plusDays(2), BookingIntervalIndex.BLOCKING_STATUSES);
+    }
+
+    private LocalDateTime nextStart() {
+        probe = (probe + 1) % PROBES;
+        return starts[probe];
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Нагрузочный тест по HTTP с замкнутым циклом: concurrency клиентов, каждый отправляет следующий
+ * GET сразу после ответа на предыдущий. После прогрева печатает пропускную способность и перцентили
+ * задержки. Клиенты работают на виртуальных потоках, чтобы сам генератор нагрузки не упирался в пул.
+ *
+ * <pre>
+ * java -cp benchmarks/target/classes ru.practicum.shareit.benchmark.LoadTest \
+ *     http://localhost:8080/items/1 [concurrency=500] [seconds=30] [warmupSeconds=10] [userId=1]
+ * </pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Использование: LoadTest <url> [concurrency] [seconds] [warmupSeconds] [userId]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        long seconds = args.length > 2 ? Long.parseLong(args[2]) : 30;
+        long warmupSeconds = args.length > 3 ? Long.parseLong(args[3]) : 10;
+        String userId = args.length > 4 ? args[4] : "1";
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", userId)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<Worker>> futures = new ArrayList<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> new Worker().run(client, request, measureFrom, deadline)));
+            }
+        }
+
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            errors += worker.errors;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("url=%s concurrency=%d seconds=%d%n", uri, concurrency, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n",
+                latencies.length, errors, latencies.length / (double) seconds);
+        System.out.printf("p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static class Worker {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker run(HttpClient client, HttpRequest request, long measureFrom, long deadline) {
+            long now = System.nanoTime();
+            while (now < deadline) {
+                long start = now;
+                boolean failed;
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    failed = response.statusCode() >= 400;
+                } catch (Exception e) {
+                    failed = true;
+                }
+                now = System.nanoTime();
+                if (start < measureFrom) {
+                    continue;
+                }
+                if (failed) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = now - start;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.benchmark;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.comment.CommentDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.CommentMapperImpl;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.mapper.RequestMapper;
+import ru.practicum.shareit.request.mapper.RequestMapperImpl;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение рефлексивного ModelMapper и сгенерированных MapStruct-мапперов на списках сущностей.
+ * Аллокации смотреть с профилировщиком: -Djmh.args="MappingBenchmark -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"100"})
+    private int size;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+    private final CommentMapper commentMapper = new CommentMapperImpl();
+    private final BookingMapper bookingMapper = new BookingMapperImpl(itemMapper, userMapper);
+    private final RequestMapper requestMapper = new RequestMapperImpl(userMapper);
+
+    private List<User> users;
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+    private List<Request> requests;
+
+    @Setup
+    public void setUp() {
+        users = new ArrayList<>();
+        items = new ArrayList<>();
+        bookings = new ArrayList<>();
+        comments = new ArrayList<>();
+        requests = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (long i = 1; i <= size; i++) {
+            User user = new User();
+            user.setId(i);
+            user.setName("user" + i);
+            user.setEmail("user" + i + "@shareit.test");
+            users.add(user);
+
+            Item item = new Item();
+            item.setId(i);
+            item.setOwner(i);
+            item.setName("item" + i);
+            item.setDescription("description of item " + i);
+            item.setAvailable(true);
+            items.add(item);
+
+            Booking booking = new Booking();
+            booking.setId(i);
+            booking.setItem(item);
+            booking.setBooker(user);
+            booking.setStatus(Status.APPROVED);
+            booking.setStart(now.minusDays(i));
+            booking.setEnd(now.plusDays(i));
+            bookings.add(booking);
+
+            Comment comment = new Comment();
+            comment.setId(i);
+            comment.setItem(item);
+            comment.setAuthor(user);
+            comment.setText("comment " + i);
+            comment.setCreated(now);
+            comments.add(comment);
+
+            Request request = new Request();
+            request.setId(i);
+            request.setRequester(user);
+            request.setDescription("request " + i);
+            request.setCreated(now);
+            requests.add(request);
+        }
+
+        // прогрев кэша TypeMap, чтобы измерялось само преобразование
+        modelMapper.map(bookings.getFirst(), BookingDto.class);
+        modelMapper.map(items.getFirst(), ItemDtoWithBookings.class);
+        modelMapper.map(comments.getFirst(), CommentDto.class);
+        modelMapper.map(requests.getFirst(), RequestDto.class);
+        modelMapper.map(users.getFirst(), UserDto.class);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsModelMapper() {
+        return bookings.stream().map(b -> modelMapper.map(b, BookingDto.class)).toList();
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsMapStruct() {
+        return bookings.stream().map(bookingMapper::toBookingDto).toList();
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBookings> itemsModelMapper() {
+        return items.stream().map(i -> modelMapper.map(i, ItemDtoWithBookings.class)).toList();
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBookings> itemsMapStruct() {
+        return items.stream().map(itemMapper::toItemDtoWithBookings).toList();
+    }
+
+    @Benchmark
+    public List<CommentDto> commentsModelMapper() {
+        return comments.stream().map(c -> modelMapper.map(c, CommentDto.class)).toList();
+    }
+
+    @Benchmark
+    public List<CommentDto> commentsMapStruct() {
+        return comments.stream().map(commentMapper::toCommentDto).toList();
+    }
+
+    @Benchmark
+    public List<RequestDto> requestsModelMapper() {
+        return requests.stream().map(r -> modelMapper.map(r, RequestDto.class)).toList();
+    }
+
+    @Benchmark
+    public List<RequestDto> requestsMapStruct() {
+        return requests.stream().map(requestMapper::toRequestDto).toList();
+    }
+
+    @Benchmark
+    public List<UserDto> usersModelMapper() {
+        return users.stream().map(u -> modelMapper.map(u, UserDto.class)).toList();
+    }
+
+    @Benchmark
+    public List<UserDto> usersMapStruct() {
+        return users.stream().map(userMapper::toUserDto).toList();
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.generator.DatasetGenerator;
+import ru.practicum.shareit.generator.GeneratorSettings;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemSuggestIndex;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути сервисного слоя на встроенной H2 (профиль test) с данными {@link DatasetGenerator}.
+ * Пользователь 1 — крупный владелец с powerOwnerItems вещей.
+ * Размер набора задаётся параметрами, например: -Djmh.args="ServiceBenchmark -p items=100000 -p bookings=1000000".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"2000"})
+    private int users;
+
+    @Param({"20000"})
+    private int items;
+
+    @Param({"200000"})
+    private int bookings;
+
+    @Param({"42"})
+    private long seed;
+
+    @Param({"20"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private TransactionTemplate session;
+    private long ownerId;
+    private String searchText;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ShareItServer.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setAdditionalProfiles("test");
+        // аргументы командной строки перекрывают уровни логирования из application.properties
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:shareit-bench;DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.transaction=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+
+        GeneratorSettings settings = new GeneratorSettings();
+        settings.setSeed(seed);
+        settings.setUsers(users);
+        settings.setItems(items);
+        settings.setBookings(bookings);
+        settings.setRequests(users / 10);
+        DatasetGenerator generator = context.getBean(DatasetGenerator.class);
+        generator.generate(settings);
+        generator.alignIdentities();
+        // индексы строятся при старте, до заполнения базы
+        context.getBean(ItemSearchIndex.class).rebuild();
+        context.getBean(ItemSuggestIndex.class).rebuild();
+        context.getBean(BookingIntervalIndex.class).rebuild();
+
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        // в веб-запросе сессия открыта на всё время запроса (open-in-view), здесь её заменяет транзакция
+        session = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        session.setReadOnly(true);
+        ownerId = 1;
+        searchText = DatasetGenerator.WORDS[0];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBookings> getAllItemsOfUser() {
+        return session.execute(status -> itemService.getAllItemsOfUser(ownerId));
+    }
+
+    @Benchmark
+    public ItemDtoWithBookings getItemById() {
+        return session.execute(status -> itemService.getItemById(ownerId));
+    }
+
+    @Benchmark
+    public List<BookingDto> findByStateForOwner() {
+        return session.execute(status ->
+                bookingService.findByStateForOwner(ru.practicum.shareit.booking.service.State.ALL, ownerId, null, pageSize));
+    }
+
+    @Benchmark
+    public List<BookingDto> findPastByStateForOwner() {
+        return session.execute(status ->
+                bookingService.findByStateForOwner(ru.practicum.shareit.booking.service.State.PAST, ownerId, null, pageSize));
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItem() {
+        return session.execute(status -> itemService.searchItem(searchText, 0, pageSize));
+    }
+
+    @Benchmark
+    public List<String> suggestItemNames() {
+        return itemService.suggestItemNames(searchText.substring(0, 3), ItemSuggestIndex.MAX_SUGGESTIONS);
+    }
+}
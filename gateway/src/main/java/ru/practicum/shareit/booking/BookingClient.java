@@ -11,6 +11,7 @@ import ru.practicum.shareit.booking.dto.CreateBookingRequest;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Component
@@ -18,11 +19,12 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpComponentsClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
@@ -40,26 +42,29 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findByStateForBooker(State state, long bookerId) {
-        Map<String, Object> requestParam = Map.of(
-                "state", state.name()
-        );
-        return get("?state={state}", bookerId, requestParam);
+    public ResponseEntity<Object> findByStateForBooker(State state, long bookerId, String cursor, int size) {
+        return get(pagedPath("", cursor), bookerId, pageParameters(state, cursor, size));
     }
 
-    public ResponseEntity<Object> findByStateForOwner(State state, long ownerId) {
-        Map<String, Object> requestParam = Map.of(
-                "state", state.name()
-        );
-        return get("/owner?state={state}", ownerId, requestParam);
+    public ResponseEntity<Object> findByStateForOwner(State state, long ownerId, String cursor, int size) {
+        return get(pagedPath("/owner", cursor), ownerId, pageParameters(state, cursor, size));
     }
 
-    public ResponseEntity<Object> getBookings(long userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    private String pagedPath(String path, String cursor) {
+        String query = "?state={state}&size={size}";
+        if (cursor != null) {
+            query += "&cursor={cursor}";
+        }
+        return path + query;
+    }
+
+    private Map<String, Object> pageParameters(State state, String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
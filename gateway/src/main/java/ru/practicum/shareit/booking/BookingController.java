@@ -44,20 +44,24 @@ public class BookingController {
 
     @GetMapping
     public ResponseEntity<Object> findByStateForBooker(@RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int size,
                                                        @RequestHeader("X-Sharer-User-Id") long bookerId) {
         State state = State.from(stateParam)
                 .orElseThrow(() -> new BadRequestException("Неверно указан параметр запроса"));
         log.info("Поступил запрос от пользователя с id={} на просмотр всех бронирований со статусом {}", bookerId, state);
-        return bookingClient.findByStateForBooker(state, bookerId);
+        return bookingClient.findByStateForBooker(state, bookerId, cursor, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> findByStateForOwner(@RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int size,
                                                       @RequestHeader("X-Sharer-User-Id") long ownerId) {
         State state = State.from(stateParam)
                 .orElseThrow(() -> new BadRequestException("Неверно указан параметр запроса"));
         log.info("Поступил запрос на просмотр всех забронированных вещей со статусом бронирования {}, принадлежащих пользователю с id={}",
                 state, ownerId);
-        return bookingClient.findByStateForOwner(state, ownerId);
+        return bookingClient.findByStateForOwner(state, ownerId, cursor, size);
     }
 }
@@ -1,32 +1,90 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-
+import java.util.Set;
+
+/**
+ * Пересылает запросы на сервер и отдаёт его ответ клиенту без разбора JSON:
+ * статус, заголовки и поток тела ответа сервера передаются как есть.
+ * Одновременные одинаковые GET к популярным ресурсам склеиваются в один запрос к серверу
+ * и перепроверяют кэш ответов по ETag (см. getShared).
+ */
 public class BaseClient {
+    // заголовки одного соединения (RFC 9110, 7.6.1) не пересылаются, их выставляет сам Tomcat
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-connection",
+            "transfer-encoding", "te", "trailer", "upgrade");
+
     protected final RestTemplate rest;
+    private final RestClient client;
+    @Nullable
+    private final ResponseCache responseCache;
+    private final SingleFlight<RequestKey, ResponseEntity<Object>> sharedGets = new SingleFlight<>();
 
     public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+        this(rest, null);
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache responseCache) {
+        this.rest = rest;
+        this.client = RestClient.create(rest);
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Тело ответа отдаётся потоком: ResourceHttpMessageConverter копирует его в ответ клиенту
+     * и закрывает, после чего соединение с сервером возвращается в пул.
+     */
+    private static ResponseEntity<Object> passthrough(ClientHttpResponse response) throws IOException {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(forwardedHeaders(response));
+        if (hasNoBody(response)) {
+            response.close();
+            return responseBuilder.build();
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        InputStream body = response.getBody();
+        return responseBuilder.body(new InputStreamResource(body));
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    /**
+     * Тело ответа читается в память целиком: один и тот же ответ получают все склеенные вызовы,
+     * а поток можно прочитать только один раз.
+     */
+    private static ResponseEntity<Object> buffered(ClientHttpResponse response) throws IOException {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(forwardedHeaders(response));
+        if (hasNoBody(response)) {
+            return responseBuilder.build();
         }
+        return responseBuilder.body(response.getBody().readAllBytes());
+    }
 
-        return responseBuilder.build();
+    private static HttpHeaders forwardedHeaders(ClientHttpResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+    private static boolean hasNoBody(ClientHttpResponse response) throws IOException {
+        return response.getHeaders().getContentLength() == 0
+                || response.getStatusCode().isSameCodeAs(HttpStatus.NO_CONTENT)
+                || response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED);
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -41,6 +99,39 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<Object> getShared(String path) {
+        return getShared(path, null, null);
+    }
+
+    /**
+     * GET, одновременные одинаковые вызовы которого (тот же путь, параметры и X-Sharer-User-Id)
+     * уходят на сервер одним запросом, а его ответ получают все ожидавшие. Если клиент создан с кэшем
+     * ответов, сохранённый ответ перепроверяется по ETag. Совпадающий If-None-Match клиента превращает
+     * ответ в 304 уже в HttpEntityMethodProcessor, так как ETag сервера пересылается клиенту.
+     * <p>
+     * Чтение своих записей не гарантируется: GET, отправленный после завершения PATCH или POST того же
+     * пользователя, может присоединиться к склеенному запросу, ушедшему на сервер до этой записи,
+     * и вернуть состояние до изменения. Окно ограничено временем одного запроса к серверу; следующий
+     * GET уже уходит на сервер заново и перепроверяет кэш по ETag.
+     */
+    protected ResponseEntity<Object> getShared(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        RequestKey key = new RequestKey(uri, userId);
+        return sharedGets.execute(key, () -> {
+            ResponseEntity<Object> cached = responseCache != null ? responseCache.get(key) : null;
+            ResponseEntity<Object> response = client.get()
+                    .uri(uri)
+                    .headers(headers -> {
+                        headers.addAll(defaultHeaders(userId));
+                        if (cached != null) {
+                            headers.setIfNoneMatch(cached.getHeaders().getETag());
+                        }
+                    })
+                    .exchange((clientRequest, serverResponse) -> buffered(serverResponse));
+            return responseCache != null ? responseCache.update(key, cached, response) : response;
+        });
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -90,19 +181,15 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        RestClient.RequestBodySpec request = client.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        if (body != null) {
+            request.body(body);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+
+        // ответ не закрывается по завершении обмена: его тело ещё будет прочитано при записи ответа клиенту
+        return request.exchange((clientRequest, response) -> passthrough(response), false);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+
+import java.net.URI;
+
+/**
+ * Полный адрес GET-запроса к серверу и пользователь, от имени которого он отправлен.
+ */
+@Data
+class RequestKey {
+    private final URI uri;
+    private final Long userId;
+}
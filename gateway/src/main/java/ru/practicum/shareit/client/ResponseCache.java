@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Кэш ответов сервера с ETag для GET отдельных ресурсов. Запись не отдаётся без проверки:
+ * её ETag уходит на сервер в If-None-Match, и на неизменённый ресурс сервер отвечает 304 без тела.
+ * Ограничен по размеру и времени жизни записи; метрики публикуются в actuator как cache.gets{cache=serverResponses}.
+ */
+@Component
+public class ResponseCache {
+    private static final String CACHE_NAME = "serverResponses";
+
+    private final Cache<RequestKey, ResponseEntity<Object>> responses;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${shareit-server.cache.max-size:10000}") long maxSize,
+                         @Value("${shareit-server.cache.ttl:10m}") Duration ttl) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+
+    ResponseEntity<Object> get(RequestKey key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Сохраняет ответ сервера и возвращает то, что нужно отдать клиенту: на 304 — сохранённый ответ,
+     * на 200 с ETag — новый ответ. Любой другой ответ (ресурс удалён, нет ETag) вытесняет запись.
+     */
+    ResponseEntity<Object> update(RequestKey key, ResponseEntity<Object> cached, ResponseEntity<Object> response) {
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            responses.put(key, cached);
+            return cached;
+        }
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.OK) && response.getHeaders().getETag() != null) {
+            // дата ответа сервера устарела бы в кэше, её выставит сам Tomcat
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(response.getHeaders());
+            headers.remove(HttpHeaders.DATE);
+            ResponseEntity<Object> stored = new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+            responses.put(key, stored);
+            return stored;
+        }
+        responses.invalidate(key);
+        return response;
+    }
+}
@@ -8,10 +8,13 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CreateItem;
 import ru.practicum.shareit.item.dto.UpdateItem;
 import ru.practicum.shareit.item.dto.comment.CreateComment;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.Map;
 
 @Component
@@ -19,12 +22,14 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpComponentsClientHttpRequestFactory requestFactory, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                responseCache
         );
     }
 
@@ -41,17 +46,46 @@ public class ItemClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getItemById(long itemId) {
-        return get("/" + itemId);
+        return getShared("/" + itemId);
+    }
+
+    public ResponseEntity<Object> getAvailability(long itemId, LocalDate from, LocalDate to) {
+        Map<String, Object> requestParam = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, requestParam);
+    }
+
+    public ResponseEntity<Object> getItemComments(long itemId, String cursor, int size) {
+        Map<String, Object> requestParam = new HashMap<>();
+        requestParam.put("size", size);
+        String query = "?size={size}";
+        if (cursor != null) {
+            requestParam.put("cursor", cursor);
+            query += "&cursor={cursor}";
+        }
+        return get("/" + itemId + "/comments" + query, null, requestParam);
     }
 
     public ResponseEntity<Object> getAllItemsOfUser(long ownerId) {
         return get("", ownerId);
     }
 
-    public ResponseEntity<Object> searchItem(String text) {
+    public ResponseEntity<Object> searchItem(String text, int from, int size) {
+        Map<String, Object> requestParam = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", null, requestParam);
+    }
+
+    public ResponseEntity<Object> suggestItemNames(String prefix, int size) {
         Map<String, Object> requestParam = Map.of(
-                "text", text
+                "prefix", prefix,
+                "size", size
         );
-        return get("/search?text={text}", null, requestParam);
+        return get("/suggest?prefix={prefix}&size={size}", null, requestParam);
     }
 }
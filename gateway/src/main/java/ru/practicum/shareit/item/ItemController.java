@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -11,6 +12,7 @@ import ru.practicum.shareit.item.dto.CreateItem;
 import ru.practicum.shareit.item.dto.UpdateItem;
 import ru.practicum.shareit.item.dto.comment.CreateComment;
 
+import java.time.LocalDate;
 import java.util.Collections;
 
 @Controller
@@ -50,6 +52,22 @@ public class ItemController {
         return itemClient.getItemById(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Поступил запрос на получение календаря занятости вещи с id={} с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getItemComments(@PathVariable long itemId,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        log.info("Поступил запрос на получение комментариев к вещи с id={}", itemId);
+        return itemClient.getItemComments(itemId, cursor, size);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAllItemsOfUser(@RequestHeader("X-Sharer-User-Id") long ownerId) {
         log.info("Поступил запрос на предоставление информации о вещах, созданных пользователем с id={}", ownerId);
@@ -57,11 +75,22 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam String text) {
+    public ResponseEntity<Object> searchItem(@RequestParam String text,
+                                             @RequestParam(defaultValue = "0") int from,
+                                             @RequestParam(defaultValue = "20") int size) {
         if (text.isEmpty() || text.isBlank()) {
             return ResponseEntity.ok(Collections.emptyList());
         }
         log.info("Поступил запрос на поиск вещи по критерию={}", text);
-        return itemClient.searchItem(text);
+        return itemClient.searchItem(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestParam String prefix,
+                                                   @RequestParam(defaultValue = "10") int size) {
+        if (prefix.isBlank()) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+        return itemClient.suggestItemNames(prefix, size);
     }
 }
@@ -0,0 +1,193 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+
+public class BaseClientTests {
+    private static final String SERVER_URL = "http://localhost:9090";
+    private static final byte[] ITEM = "{\"id\":1,\"name\":\"Дрель\"}".getBytes(StandardCharsets.UTF_8);
+
+    private MockRestServiceServer server;
+    private TestClient client;
+
+    @BeforeEach
+    public void setUp() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL));
+        // сервер подменяет фабрику запросов RestTemplate, поэтому привязывается до создания клиента
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new TestClient(rest);
+    }
+
+    @Test
+    public void statusAndHeadersAreForwardedWithoutHopByHopHeadersTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setETag("\"v1\"");
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        headers.set("Keep-Alive", "timeout=60");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "7"))
+                .andRespond(respond(HttpStatus.CREATED, headers, new TrackedStream(ITEM)));
+
+        ResponseEntity<Object> response = client.get("/items/1", 7);
+
+        server.verify();
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertFalse(response.getHeaders().containsKey("Keep-Alive"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    public void errorStatusIsForwardedWithBodyTest() throws IOException {
+        byte[] error = "{\"error\":\"Вещь не найдена\"}".getBytes(StandardCharsets.UTF_8);
+        server.expect(requestTo(SERVER_URL + "/items/42"))
+                .andRespond(respond(HttpStatus.NOT_FOUND, jsonHeaders(), new TrackedStream(error)));
+
+        ResponseEntity<Object> response = client.get("/items/42", 7);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(error, write(response).getBodyAsBytes());
+    }
+
+    @Test
+    public void bodyIsStreamedAndClosedAfterWriteTest() throws IOException {
+        TrackedStream body = new TrackedStream(ITEM);
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andRespond(respond(HttpStatus.OK, jsonHeaders(), body));
+
+        ResponseEntity<Object> response = client.get("/items/1", 7);
+
+        // тело не читается в память: до записи ответа клиенту поток сервера не тронут и открыт
+        assertInstanceOf(InputStreamResource.class, response.getBody());
+        assertEquals(0, body.reads.get());
+        assertFalse(body.closed);
+
+        MockHttpOutputMessage output = write(response);
+
+        assertArrayEquals(ITEM, output.getBodyAsBytes());
+        assertTrue(body.reads.get() > 0);
+        assertTrue(body.closed);
+    }
+
+    @Test
+    public void noContentResponseIsClosedWithoutBodyTest() {
+        TrackedStream body = new TrackedStream(new byte[0]);
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(respond(HttpStatus.NO_CONTENT, new HttpHeaders(), body));
+
+        ResponseEntity<Object> response = client.delete("/items/1", 7);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertNull(response.getBody());
+        assertTrue(body.closed);
+    }
+
+    private static ResponseCreator respond(HttpStatus status, HttpHeaders headers, TrackedStream body) {
+        return request -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(body, status);
+            response.getHeaders().putAll(headers);
+            return response;
+        };
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    /**
+     * Записывает тело так же, как его пишет в ответ клиенту HttpEntityMethodProcessor шлюза.
+     */
+    private static MockHttpOutputMessage write(ResponseEntity<Object> response) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        InputStreamResource resource = assertInstanceOf(InputStreamResource.class, response.getBody());
+        new ResourceHttpMessageConverter().write(resource, response.getHeaders().getContentType(), output);
+        return output;
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest) {
+            super(rest);
+        }
+
+        @Override
+        public ResponseEntity<Object> get(String path, long userId) {
+            return super.get(path, userId);
+        }
+
+        @Override
+        public ResponseEntity<Object> delete(String path, long userId) {
+            return super.delete(path, userId);
+        }
+    }
+
+    private static class TrackedStream extends ByteArrayInputStream {
+        private final AtomicInteger reads = new AtomicInteger();
+        private volatile boolean closed;
+
+        TrackedStream(byte[] body) {
+            super(body);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            reads.incrementAndGet();
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public synchronized int read() {
+            reads.incrementAndGet();
+            return super.read();
+        }
+
+        @Override
+        public synchronized long transferTo(OutputStream out) throws IOException {
+            reads.incrementAndGet();
+            return super.transferTo(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.client;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.function.Resolver;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public class HttpClientConfigTests {
+    private static final HttpRoute SERVER_ROUTE = new HttpRoute(new HttpHost("localhost", 9090));
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class);
+
+    @Test
+    public void propertiesAreBoundFromShareItServerHttpTest() {
+        runner.withPropertyValues(
+                "shareit-server.http.max-total=50",
+                "shareit-server.http.max-per-route=20",
+                "shareit-server.http.connect-timeout=1500ms",
+                "shareit-server.http.read-timeout=7s",
+                "shareit-server.http.connection-request-timeout=3s",
+                "shareit-server.http.keep-alive=45s",
+                "shareit-server.http.idle-eviction=1m",
+                "shareit-server.http.validate-after-inactivity=500ms"
+        ).run(context -> {
+            HttpClientProperties properties = context.getBean(HttpClientProperties.class);
+
+            assertEquals(50, properties.getMaxTotal());
+            assertEquals(20, properties.getMaxPerRoute());
+            assertEquals(Duration.ofMillis(1500), properties.getConnectTimeout());
+            assertEquals(Duration.ofSeconds(7), properties.getReadTimeout());
+            assertEquals(Duration.ofSeconds(3), properties.getConnectionRequestTimeout());
+            assertEquals(Duration.ofSeconds(45), properties.getKeepAlive());
+            assertEquals(Duration.ofMinutes(1), properties.getIdleEviction());
+            assertEquals(Duration.ofMillis(500), properties.getValidateAfterInactivity());
+        });
+    }
+
+    @Test
+    public void connectionManagerAppliesPoolLimitsAndTimeoutsTest() {
+        runner.withPropertyValues(
+                "shareit-server.http.max-total=50",
+                "shareit-server.http.max-per-route=20",
+                "shareit-server.http.connect-timeout=1500ms",
+                "shareit-server.http.read-timeout=7s",
+                "shareit-server.http.validate-after-inactivity=500ms"
+        ).run(context -> {
+            PoolingHttpClientConnectionManager manager = context.getBean(PoolingHttpClientConnectionManager.class);
+            ConnectionConfig connectionConfig = connectionConfig(manager);
+
+            assertEquals(50, manager.getMaxTotal());
+            assertEquals(20, manager.getDefaultMaxPerRoute());
+            assertEquals(20, manager.getMaxPerRoute(SERVER_ROUTE));
+            assertEquals(Timeout.ofMilliseconds(1500), connectionConfig.getConnectTimeout());
+            assertEquals(Timeout.ofSeconds(7), connectionConfig.getSocketTimeout());
+            assertEquals(TimeValue.ofMilliseconds(500), connectionConfig.getValidateAfterInactivity());
+        });
+    }
+
+    @Test
+    public void requestFactoryUsesSharedManagerAndRequestTimeoutsTest() {
+        runner.withPropertyValues(
+                "shareit-server.http.read-timeout=7s",
+                "shareit-server.http.connection-request-timeout=3s"
+        ).run(context -> {
+            HttpComponentsClientHttpRequestFactory requestFactory =
+                    context.getBean(HttpComponentsClientHttpRequestFactory.class);
+            RequestConfig requestConfig = assertInstanceOf(Configurable.class, requestFactory.getHttpClient()).getConfig();
+
+            assertEquals(Timeout.ofSeconds(3), requestConfig.getConnectionRequestTimeout());
+            assertEquals(Timeout.ofSeconds(7), requestConfig.getResponseTimeout());
+            assertEquals(context.getBean(PoolingHttpClientConnectionManager.class),
+                    ReflectionTestUtils.getField(requestFactory.getHttpClient(), "connManager"));
+        });
+    }
+
+    @Test
+    public void applicationPropertiesConfigurePoolTest() {
+        runner.withInitializer(new ConfigDataApplicationContextInitializer())
+                .run(context -> {
+                    PoolingHttpClientConnectionManager manager = context.getBean(PoolingHttpClientConnectionManager.class);
+                    ConnectionConfig connectionConfig = connectionConfig(manager);
+
+                    assertEquals(200, manager.getMaxTotal());
+                    assertEquals(200, manager.getDefaultMaxPerRoute());
+                    assertEquals(Timeout.ofSeconds(2), connectionConfig.getConnectTimeout());
+                    assertEquals(Timeout.ofSeconds(30), connectionConfig.getSocketTimeout());
+                });
+    }
+
+    @Test
+    public void virtualThreadsProfileRaisesPoolLimitsTest() {
+        runner.withInitializer(new ConfigDataApplicationContextInitializer())
+                .withPropertyValues("spring.profiles.active=virtual-threads")
+                .run(context -> {
+                    PoolingHttpClientConnectionManager manager = context.getBean(PoolingHttpClientConnectionManager.class);
+
+                    assertEquals(1000, manager.getMaxTotal());
+                    assertEquals(1000, manager.getDefaultMaxPerRoute());
+                });
+    }
+
+    /**
+     * Менеджер не отдаёт настройки соединений наружу: они доступны только через резолвер по маршруту.
+     */
+    @SuppressWarnings("unchecked")
+    private static ConnectionConfig connectionConfig(PoolingHttpClientConnectionManager manager) {
+        Resolver<HttpRoute, ConnectionConfig> resolver = (Resolver<HttpRoute, ConnectionConfig>)
+                ReflectionTestUtils.getField(manager, "connectionConfigResolver");
+        return resolver.resolve(SERVER_ROUTE);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ResponseCacheTests {
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+
+    private final ResponseCache cache = new ResponseCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Test
+    public void okWithEtagIsStoredWithoutDateTest() {
+        RequestKey key = new RequestKey(ITEM, 1L);
+
+        ResponseEntity<Object> stored = cache.update(key, null, ok("\"v1\"", "item"));
+
+        assertSame(stored, cache.get(key));
+        assertEquals("item", stored.getBody());
+        assertEquals("\"v1\"", stored.getHeaders().getETag());
+        assertFalse(stored.getHeaders().containsKey(HttpHeaders.DATE));
+    }
+
+    @Test
+    public void notModifiedReturnsCachedResponseTest() {
+        RequestKey key = new RequestKey(ITEM, 1L);
+        ResponseEntity<Object> cached = cache.update(key, null, ok("\"v1\"", "item"));
+
+        ResponseEntity<Object> result = cache.update(key, cached, ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        assertSame(cached, result);
+        assertSame(cached, cache.get(key));
+    }
+
+    @Test
+    public void okWithoutEtagEvictsEntryTest() {
+        RequestKey key = new RequestKey(ITEM, 1L);
+        ResponseEntity<Object> cached = cache.update(key, null, ok("\"v1\"", "item"));
+        ResponseEntity<Object> response = ResponseEntity.ok("changed");
+
+        assertSame(response, cache.update(key, cached, response));
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void errorResponseEvictsEntryTest() {
+        RequestKey key = new RequestKey(ITEM, 1L);
+        ResponseEntity<Object> cached = cache.update(key, null, ok("\"v1\"", "item"));
+        ResponseEntity<Object> response = ResponseEntity.status(HttpStatus.NOT_FOUND).body("not found");
+
+        assertSame(response, cache.update(key, cached, response));
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void notModifiedWithoutCachedEntryIsPassedThroughTest() {
+        RequestKey key = new RequestKey(ITEM, 1L);
+        ResponseEntity<Object> response = ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+
+        assertSame(response, cache.update(key, null, response));
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void entriesOfDifferentUsersAreSeparateTest() {
+        RequestKey first = new RequestKey(ITEM, 1L);
+        RequestKey second = new RequestKey(ITEM, 2L);
+        ResponseEntity<Object> cached = cache.update(first, null, ok("\"owner\"", "item with bookings"));
+
+        assertNull(cache.get(second));
+        assertNull(cache.get(new RequestKey(ITEM, null)));
+
+        cache.update(second, null, ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        assertSame(cached, cache.get(first));
+        assertNull(cache.get(second));
+    }
+
+    private static ResponseEntity<Object> ok(String etag, Object body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.DATE, "Sun, 18 Oct 2026 10:00:00 GMT")
+                .body(body);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTests {
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void concurrentCallersShareOneCallTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> results = runConcurrently(() -> singleFlight.execute("items/1", () -> {
+            calls.incrementAndGet();
+            await(release);
+            return 42;
+        }), release);
+
+        assertEquals(1, calls.get());
+        assertEquals(CALLERS, results.size());
+        results.forEach(result -> assertEquals(42, result));
+    }
+
+    @Test
+    public void exceptionReachesAllWaitersTest() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Сервер недоступен");
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> results = runConcurrently(() -> singleFlight.execute("items/1", () -> {
+            await(release);
+            throw failure;
+        }), release);
+
+        assertEquals(CALLERS, results.size());
+        results.forEach(result -> assertSame(failure, result));
+    }
+
+    @Test
+    public void completedCallIsNotReusedTest() {
+        assertEquals(1, singleFlight.execute("items/1", () -> 1));
+        assertEquals(2, singleFlight.execute("items/1", () -> 2));
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("items/1", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(3, singleFlight.execute("items/1", () -> 3));
+    }
+
+    /**
+     * Запускает CALLERS потоков с call и отпускает release, когда все они ждут: один внутри вызова,
+     * остальные — его результата. Возвращает результаты или исключения всех потоков.
+     */
+    private static List<Object> runConcurrently(Supplier<Integer> call, CountDownLatch release) throws Exception {
+        List<Object> results = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        ConcurrentHashMap<Thread, Object> outcomes = new ConcurrentHashMap<>();
+        for (int i = 0; i < CALLERS; i++) {
+            Thread thread = new Thread(() -> {
+                Object outcome;
+                try {
+                    outcome = call.get();
+                } catch (RuntimeException e) {
+                    outcome = e;
+                }
+                outcomes.put(Thread.currentThread(), outcome);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            assertTrue(System.nanoTime() < deadline, "Потоки не дошли до ожидания");
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            results.add(outcomes.get(thread));
+        }
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
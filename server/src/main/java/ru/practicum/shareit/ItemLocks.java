@@ -0,0 +1,56 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Набор блокировок, разбитый на полосы по id вещи: операции над одной вещью выполняются
+ * последовательно, над разными вещами — параллельно (с точностью до коллизий полос).
+ * Внутри транзакции блокировка держится до её завершения: изменения, применяемые после фиксации
+ * (в BookingIntervalIndex, ItemSearchIndex и ItemSuggestIndex), видны следующему владельцу блокировки.
+ */
+@Component
+public class ItemLocks {
+    private final ReentrantLock[] stripes;
+
+    public ItemLocks(@Value("${shareit.booking.lock-stripes:64}") int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Количество полос блокировки должно быть положительным");
+        }
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(long itemId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(itemId)];
+        lock.lock();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // afterCompletion вызывается в том же потоке после всех afterCommit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+            return action.get();
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripeOf(long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, stripes.length);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.regex.Pattern;
+
+/**
+ * Выставляет ETag (хэш тела ответа) на GET отдельных ресурсов и отвечает 304 без тела,
+ * если клиент прислал совпадающий If-None-Match. Шлюз по этому ETag перепроверяет
+ * свой кэш ответов. Остальные пути не фильтруются: шлюз отдаёт их ответы потоком.
+ */
+@Component
+public class ResourceEtagFilter extends ShallowEtagHeaderFilter {
+    private static final Pattern CACHEABLE_PATHS = Pattern.compile("/(items|requests|users)/\\d+|/requests/all");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !CACHEABLE_PATHS.matcher(request.getRequestURI()).matches();
+    }
+}
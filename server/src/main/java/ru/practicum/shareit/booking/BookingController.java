@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
@@ -17,6 +19,10 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String DEFAULT_PAGE_SIZE = "20";
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final BookingServiceImpl bookingService;
 
     @PostMapping
@@ -39,8 +45,10 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> findByStateForBooker(@RequestParam(value = "state", defaultValue = "ALL") String state,
-                                                 @RequestHeader("X-Sharer-User-Id") long bookerId) {
+    public ResponseEntity<List<BookingDto>> findByStateForBooker(@RequestParam(value = "state", defaultValue = "ALL") String state,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size,
+                                                                 @RequestHeader("X-Sharer-User-Id") long bookerId) {
         State stateFromRequest;
         try {
             stateFromRequest = State.valueOf(state);
@@ -48,15 +56,41 @@ public class BookingController {
             throw new BadRequestException("Неверно указан параметр запроса", e);
         }
 
-        return bookingService.findByStateForBooker(stateFromRequest, bookerId);
+        List<BookingDto> bookings = bookingService.findByStateForBooker(stateFromRequest, bookerId,
+                decodeCursor(cursor), checkPageSize(size));
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findByStateForOwner(@RequestParam(value = "state", defaultValue = "ALL") String stateParam,
-                                                @RequestHeader("X-Sharer-User-Id") long ownerId) {
+    public ResponseEntity<List<BookingDto>> findByStateForOwner(@RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size,
+                                                                @RequestHeader("X-Sharer-User-Id") long ownerId) {
         State state = State.from(stateParam)
                 .orElseThrow(() -> new BadRequestException("Неверно указан параметр запроса"));
-        return bookingService.findByStateForOwner(state, ownerId);
+
+        List<BookingDto> bookings = bookingService.findByStateForOwner(state, ownerId,
+                decodeCursor(cursor), checkPageSize(size));
+        return withNextCursor(bookings, size);
+    }
+
+    private BookingCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : BookingCursor.decode(cursor);
+    }
+
+    private int checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.getLast()).encode());
+        }
+        return response.body(bookings);
     }
 
 }
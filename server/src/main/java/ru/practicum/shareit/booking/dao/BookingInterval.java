@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dao;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал бронирования без связанных сущностей: всё, что нужно индексу занятости вещи.
+ */
+@Data
+public class BookingInterval {
+    private final long id;
+    private final long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.dao;
+
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.State;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> byBooker(long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byItemOwner(long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner"), ownerId);
+    }
+
+    public static Specification<Booking> after(BookingCursor cursor) {
+        if (cursor == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("start"), cursor.getStart()),
+                cb.and(
+                        cb.equal(root.get("start"), cursor.getStart()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    public static Specification<Booking> fetchItemAndBooker() {
+        return (root, query, cb) -> {
+            if (Booking.class.equals(query.getResultType())) {
+                root.fetch("item", JoinType.INNER);
+                root.fetch("booker", JoinType.INNER);
+            }
+            return cb.conjunction();
+        };
+    }
+
+    public static Specification<Booking> byState(State state, LocalDateTime now) {
+        return (root, query, cb) -> switch (state) {
+            case ALL -> cb.conjunction();
+            case CURRENT -> cb.and(
+                    cb.lessThanOrEqualTo(root.get("start"), now),
+                    cb.greaterThanOrEqualTo(root.get("end"), now));
+            case PAST -> cb.lessThan(root.get("end"), now);
+            case FUTURE -> cb.greaterThan(root.get("start"), now);
+            case WAITING -> cb.equal(root.get("status"), Status.WAITING);
+            case REJECTED -> cb.equal(root.get("status"), Status.REJECTED);
+        };
+    }
+
+}
@@ -1,19 +1,33 @@
 package ru.practicum.shareit.booking.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingStorage extends JpaRepository<Booking, Long> {
+public interface BookingStorage extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
 
-    List<Booking> findByBookerId(long bookerId);
+    /**
+     * Интервалы бронирований в статусах statuses; сущности Booking, Item и User не загружаются.
+     */
+    @Query("select new ru.practicum.shareit.booking.dao.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking b where b.status in (:statuses)")
+    List<BookingInterval> findIntervalsByStatusIn(Collection<Status> statuses);
 
-    @Query("select b from Booking b where b.item.id in (:itemIds)")
-    List<Booking> findByItemIds(List<Long> itemIds);
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.status in (:statuses) and b.start < :end and b.end > :start")
+    boolean existsOverlapping(long itemId, LocalDateTime start, LocalDateTime end, Collection<Status> statuses);
+
+    @Query("select new ru.practicum.shareit.booking.dao.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking b where b.item.id = :itemId and b.status in (:statuses) and b.start < :end and b.end > :start")
+    List<BookingInterval> findOverlappingIntervals(long itemId, LocalDateTime start, LocalDateTime end,
+                                                   Collection<Status> statuses);
 
     @Query("select case when count(b.item.id) > 0 then true else false end from Booking b where b.booker.id = :bookerId")
     boolean existsItemIdByBookerId(long bookerId);
@@ -21,37 +35,25 @@ public interface BookingStorage extends JpaRepository<Booking, Long> {
     @Query("select b.end from Booking b where (b.booker.id = :userId or b.item.owner = :userId) and b.item.id = :itemId")
     LocalDateTime findEndOfBookingByUserIdAndItemId(long userId, long itemId);
 
-    @Query("select b from Booking b where b.booker.id = :bookerId " +
-            "and (b.start <= :today and b.end >= :today)")
-    List<Booking> findCurrentByBookerId(long bookerId, LocalDateTime today);
-
-    @Query("select b from Booking b where b.item.id in (:itemIds) " +
-            "and (b.start <= :today and b.end >= :today)")
-    List<Booking> findCurrentByItemIds(List<Long> itemIds, LocalDateTime today);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId and b.end < :today")
-    List<Booking> findPastByBookerId(long bookerId, LocalDateTime today);
-
-    @Query("select b from Booking b where b.item.id in (:itemIds) and b.end < :today")
-    List<Booking> findPastByItemIds(List<Long> itemIds, LocalDateTime today);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId and b.start > :today")
-    List<Booking> findFutureByBookerId(long bookerId, LocalDateTime today);
-
-    @Query("select b from Booking b where b.item.id in (:itemIds) and b.start > :today")
-    List<Booking> findFutureByItemIds(List<Long> itemIds, LocalDateTime today);
-
-    List<Booking> findByStatusEqualsAndBookerIdEqualsOrderByStartDesc(Status status, long bookerId);
-
-    List<Booking> findByStatusEqualsAndItemIdInOrderByStartDesc(Status status, List<Long> itemIds);
-
-    @Query("select b.item.id from Booking b where b.id = :bookingId")
-    Long findItemIdByBookingId(long bookingId);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id = :bookingId")
+    Optional<Booking> findWithItemAndBookerById(long bookingId);
 
-    @Query("select b from Booking b where b.item.id in (:itemIds) and b.start > :now order by b.start limit 1")
+    /**
+     * Ближайшее будущее бронирование каждой вещи; из бронирований с одинаковым началом берётся меньший id.
+     */
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in (:itemIds) and b.start = " +
+            "(select min(n.start) from Booking n where n.item = b.item and n.start > :now) " +
+            "and not exists (select t.id from Booking t where t.item = b.item and t.start = b.start and t.id < b.id)")
     List<Booking> findNextBookings(List<Long> itemIds, LocalDateTime now);
 
-    @Query("select b from Booking b where b.item.id in (:itemIds) and b.end < :now order by b.end desc limit 1")
+    /**
+     * Последнее завершённое бронирование каждой вещи; из бронирований с одинаковым концом берётся меньший id.
+     */
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in (:itemIds) and b.end = " +
+            "(select max(l.end) from Booking l where l.item = b.item and l.end < :now) " +
+            "and not exists (select t.id from Booking t where t.item = b.item and t.end = b.end and t.id < b.id)")
     List<Booking> findLastBookings(List<Long> itemIds, LocalDateTime now);
 
 }
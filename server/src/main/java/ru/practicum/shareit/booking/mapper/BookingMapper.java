@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.mapper;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+@Mapper(componentModel = "spring", uses = {ItemMapper.class, UserMapper.class},
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface BookingMapper {
+
+    @Mapping(target = "itemId", source = "item.id")
+    BookingDto toBookingDto(Booking booking);
+
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dao.BookingInterval;
+import ru.practicum.shareit.booking.dao.BookingStorage;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.generator.DatasetGeneratorRunner;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс занятых интервалов по каждой вещи: бронирования в статусах WAITING и APPROVED.
+ * Для каждой вещи хранится дерево интервалов и битовая карта занятых дней (один бит на день).
+ * Строится из таблицы bookings при старте и поддерживается BookingServiceImpl после каждой записи.
+ * Пока построение не завершено (isReady), пересечения проверяются запросом к базе.
+ * Индекс локален для процесса: сервер рассчитан на один экземпляр, бронирования,
+ * созданные другим экземпляром, в индекс не попадут.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final Set<Status> BLOCKING_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+    public static final LocalDate CALENDAR_ORIGIN = LocalDate.of(2000, 1, 1);
+
+    private final BookingStorage bookingStorage;
+
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private final Set<Long> indexedBookingIds = ConcurrentHashMap.newKeySet();
+    // снятые во время построения бронирования: в прочитанном до снятия снимке они ещё занимают вещь
+    private final Set<Long> removedBeforeReady = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    @EventListener(classes = ApplicationReadyEvent.class, condition = DatasetGeneratorRunner.NOT_GENERATING)
+    public void rebuild() {
+        ready = false;
+        timelines.clear();
+        indexedBookingIds.clear();
+        removedBeforeReady.clear();
+        for (BookingInterval interval : bookingStorage.findIntervalsByStatusIn(BLOCKING_STATUSES)) {
+            if (!removedBeforeReady.contains(interval.getId())) {
+                add(interval.getId(), interval.getItemId(), interval.getStart(), interval.getEnd());
+            }
+        }
+        removedBeforeReady.clear();
+        ready = true;
+        log.info("Индекс бронирований построен: {} интервалов", indexedBookingIds.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean overlaps(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return false;
+        }
+        synchronized (timeline) {
+            return timeline.tree.overlaps(start, end);
+        }
+    }
+
+    public boolean contains(long bookingId) {
+        return indexedBookingIds.contains(bookingId);
+    }
+
+    /**
+     * Возвращает занятые дни вещи в диапазоне [from, to]: бит i соответствует дню from + i.
+     */
+    public BitSet busyDays(long itemId, LocalDate from, LocalDate to) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return new BitSet();
+        }
+        int fromIndex = dayIndex(from);
+        int toIndex = dayIndex(to) + 1;
+        BitSet result;
+        synchronized (timeline) {
+            result = timeline.busyDays.get(Math.max(fromIndex, 0), Math.max(toIndex, 0));
+        }
+        if (fromIndex < 0) {
+            BitSet shifted = new BitSet();
+            result.stream().forEach(bit -> shifted.set(bit - fromIndex));
+            return shifted;
+        }
+        return result;
+    }
+
+    /**
+     * Занятые дни в диапазоне [from, to] по интервалам, прочитанным из базы, в том же виде, что и
+     * {@link #busyDays(long, LocalDate, LocalDate)}: пока индекс не построен, календарь считается так.
+     */
+    public static BitSet busyDaysOf(Collection<BookingInterval> intervals, LocalDate from, LocalDate to) {
+        int fromIndex = dayIndex(from);
+        int toIndex = dayIndex(to);
+        BitSet result = new BitSet();
+        for (BookingInterval interval : intervals) {
+            int first = Math.max(dayIndex(interval.getStart().toLocalDate()), fromIndex);
+            int last = Math.min(dayIndex(lastDay(interval.getEnd())), toIndex);
+            if (last >= first) {
+                result.set(first - fromIndex, last - fromIndex + 1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Приводит индекс в соответствие со статусом бронирования. Внутри транзакции изменение
+     * применяется только после её фиксации; ItemLocks держит блокировку вещи до этого момента.
+     */
+    public void update(Booking booking) {
+        long bookingId = booking.getId();
+        long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        boolean blocking = BLOCKING_STATUSES.contains(booking.getStatus());
+
+        Runnable apply = () -> {
+            if (blocking) {
+                add(bookingId, itemId, start, end);
+            } else {
+                remove(bookingId, itemId, start, end);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void add(long bookingId, long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!indexedBookingIds.add(bookingId)) {
+            return;
+        }
+        ItemTimeline timeline = timelines.computeIfAbsent(itemId, id -> new ItemTimeline());
+        synchronized (timeline) {
+            timeline.tree.insert(bookingId, start, end);
+            int first = Math.max(dayIndex(start.toLocalDate()), 0);
+            int last = dayIndex(lastDay(end));
+            if (last >= first) {
+                timeline.busyDays.set(first, last + 1);
+            }
+        }
+    }
+
+    private void remove(long bookingId, long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!ready) {
+            removedBeforeReady.add(bookingId);
+        }
+        if (!indexedBookingIds.remove(bookingId)) {
+            return;
+        }
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return;
+        }
+        synchronized (timeline) {
+            timeline.tree.remove(bookingId, start);
+            for (LocalDate day = start.toLocalDate(); !day.isAfter(lastDay(end)); day = day.plusDays(1)) {
+                int index = dayIndex(day);
+                if (index >= 0) {
+                    LocalDateTime dayStart = day.atStartOfDay();
+                    timeline.busyDays.set(index, timeline.tree.overlaps(dayStart, dayStart.plusDays(1)));
+                }
+            }
+        }
+    }
+
+    private static LocalDate lastDay(LocalDateTime end) {
+        LocalDate day = end.toLocalDate();
+        return end.toLocalTime().equals(LocalTime.MIDNIGHT) ? day.minusDays(1) : day;
+    }
+
+    private static int dayIndex(LocalDate day) {
+        return Math.toIntExact(ChronoUnit.DAYS.between(CALENDAR_ORIGIN, day));
+    }
+
+    private static final class ItemTimeline {
+        private final BookingIntervalTree tree = new BookingIntervalTree();
+        private final BitSet busyDays = new BitSet();
+    }
+}
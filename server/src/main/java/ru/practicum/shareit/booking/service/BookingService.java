@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 
@@ -13,8 +14,8 @@ public interface BookingService {
 
     BookingDto getBookingInfoById(long bookingId, long userId);
 
-    List<BookingDto> findByStateForBooker(State state, long bookerId);
+    List<BookingDto> findByStateForBooker(State state, long bookerId, BookingCursor cursor, int size);
 
-    List<BookingDto> findByStateForOwner(State state, long ownerId);
+    List<BookingDto> findByStateForOwner(State state, long ownerId, BookingCursor cursor, int size);
 
 }
@@ -1,14 +1,20 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.ItemLocks;
+import ru.practicum.shareit.booking.dao.BookingSpecifications;
 import ru.practicum.shareit.booking.dao.BookingStorage;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.ForbiddenException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemStorage;
@@ -23,11 +29,13 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
-    private final ModelMapper mapper;
+    private final BookingMapper bookingMapper;
 
     private final UserStorage userStorage;
     private final ItemStorage itemStorage;
     private final BookingStorage bookingStorage;
+    private final BookingIntervalIndex intervalIndex;
+    private final ItemLocks itemLocks;
 
     @Override
     public BookingDto addNewBooking(CreateBookingDto request, long bookerId) {
@@ -41,13 +49,22 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Данная вещь пока не может быть забронирована");
         }
 
-        Booking booking = mapper.map(request, Booking.class);
-
+        Booking booking = new Booking();
+        booking.setStart(request.getStart());
+        booking.setEnd(request.getEnd());
         booking.setStatus(Status.WAITING);
         booking.setBooker(user);
         booking.setItem(item);
 
-        return mapper.map(bookingStorage.save(booking), BookingDto.class);
+        Booking saved = itemLocks.withLock(item.getId(), () -> {
+            if (overlaps(item.getId(), booking.getStart(), booking.getEnd())) {
+                throw new ConflictException("Вещь уже забронирована на указанные даты");
+            }
+            Booking created = bookingStorage.save(booking);
+            intervalIndex.update(created);
+            return created;
+        });
+        return bookingMapper.toBookingDto(saved);
     }
 
     @Override
@@ -61,107 +78,106 @@ public class BookingServiceImpl implements BookingService {
         }
 
         Status status = approved ? Status.APPROVED : Status.REJECTED;
-        booking.setStatus(status);
+        long itemId = booking.getItem().getId();
+
+        Booking saved = itemLocks.withLock(itemId, () -> {
+            if (approved && !isBlocking(booking) && overlaps(itemId, booking.getStart(), booking.getEnd())) {
+                throw new ConflictException("Вещь уже забронирована на указанные даты");
+            }
+            booking.setStatus(status);
+            Booking updated = bookingStorage.save(booking);
+            intervalIndex.update(updated);
+            return updated;
+        });
+        return bookingMapper.toBookingDto(saved);
+    }
+
+    /**
+     * Пока индекс строится после старта, пересечения проверяются запросом к базе.
+     */
+    private boolean overlaps(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!intervalIndex.isReady()) {
+            return bookingStorage.existsOverlapping(itemId, start, end, BookingIntervalIndex.BLOCKING_STATUSES);
+        }
+        return intervalIndex.overlaps(itemId, start, end);
+    }
 
-        return mapper.map(bookingStorage.save(booking), BookingDto.class);
+    private boolean isBlocking(Booking booking) {
+        if (!intervalIndex.isReady()) {
+            return BookingIntervalIndex.BLOCKING_STATUSES.contains(booking.getStatus());
+        }
+        return intervalIndex.contains(booking.getId());
     }
 
     @Override
     public BookingDto getBookingInfoById(long bookingId, long userId) {
-        if (!userStorage.existsById(userId)) {
-            throw new NotFoundException("Пользователь не найден");
-        } else if (!bookingStorage.existsById(bookingId)) {
+        Booking booking = bookingStorage.findWithItemAndBookerById(bookingId).orElse(null);
+        if (booking == null) {
+            if (!userStorage.existsById(userId)) {
+                throw new NotFoundException("Пользователь не найден");
+            }
             throw new NotFoundException("Бронирование не найдено");
         }
 
-        long itemId = bookingStorage.findItemIdByBookingId(bookingId);
-        long ownerId = itemStorage.findOwnerIdByItemId(itemId);
-        long bookerId = bookingStorage.getReferenceById(bookingId).getBooker().getId();
-
+        long ownerId = booking.getItem().getOwner();
+        long bookerId = booking.getBooker().getId();
         if (userId != ownerId && userId != bookerId) {
+            if (!userStorage.existsById(userId)) {
+                throw new NotFoundException("Пользователь не найден");
+            }
             throw new ForbiddenException("Наш сервис не предоставляет информацию по бронированию третьим лицам");
         }
 
-        return mapper.map(bookingStorage.getReferenceById(bookingId), BookingDto.class);
+        return bookingMapper.toBookingDto(booking);
     }
 
     @Override
-    public List<BookingDto> findByStateForBooker(State state, long bookerId) {
-        if (!userStorage.existsById(bookerId)) {
-            throw new NotFoundException("Пользователь не найден");
+    public List<BookingDto> findByStateForBooker(State state, long bookerId, BookingCursor cursor, int size) {
+        List<Booking> bookings = findByState(BookingSpecifications.byBooker(bookerId), state, cursor, size);
+        // у несуществующего пользователя бронирований нет, поэтому проверять его нужно только на пустой странице
+        if (bookings.isEmpty()) {
+            if (!userStorage.existsById(bookerId)) {
+                throw new NotFoundException("Пользователь не найден");
+            }
+            throwIfFirstPage(cursor);
         }
 
-        List<Booking> resultBooking = new ArrayList<>();
-        LocalDateTime today = LocalDateTime.now();
-        switch (state) {
-            case ALL:
-                resultBooking.addAll(bookingStorage.findByBookerId(bookerId));
-                break;
-            case PAST:
-                resultBooking.addAll(bookingStorage.findPastByBookerId(bookerId, today));
-                break;
-            case CURRENT:
-                resultBooking.addAll(bookingStorage.findCurrentByBookerId(bookerId, today));
-                break;
-            case FUTURE:
-                resultBooking.addAll(bookingStorage.findFutureByBookerId(bookerId, today));
-                break;
-            case WAITING:
-                resultBooking.addAll(bookingStorage.findByStatusEqualsAndBookerIdEqualsOrderByStartDesc(Status.WAITING, bookerId));
-                break;
-            case REJECTED:
-                resultBooking.addAll(bookingStorage.findByStatusEqualsAndBookerIdEqualsOrderByStartDesc(Status.REJECTED, bookerId));
-                break;
-        }
+        return mapBookingListToBookingDtoList(bookings);
+    }
 
-        if (resultBooking.isEmpty()) {
-            throw new NotFoundException("Бронирований с данным статусом не найдено");
+    @Override
+    public List<BookingDto> findByStateForOwner(State state, long ownerId, BookingCursor cursor, int size) {
+        List<Booking> bookings = findByState(BookingSpecifications.byItemOwner(ownerId), state, cursor, size);
+        if (bookings.isEmpty()) {
+            if (!itemStorage.existsByOwner(ownerId)) {
+                throw new NotFoundException("В сервис ещё не добавлено ни одной вещи к бронированию");
+            }
+            throwIfFirstPage(cursor);
         }
 
-        return mapBookingListToBookingDtoList(resultBooking);
+        return mapBookingListToBookingDtoList(bookings);
     }
 
-    @Override
-    public List<BookingDto> findByStateForOwner(State state, long ownerId) {
-        List<Long> itemIds = itemStorage.findItemIdByOwnerId(ownerId);
-        if (itemIds.isEmpty()) {
-            throw new NotFoundException("В сервис ещё не добавлено ни одной вещи к бронированию");
-        }
+    private List<Booking> findByState(Specification<Booking> byUser, State state, BookingCursor cursor, int size) {
+        Specification<Booking> spec = byUser
+                .and(BookingSpecifications.byState(state, LocalDateTime.now()))
+                .and(BookingSpecifications.after(cursor))
+                .and(BookingSpecifications.fetchItemAndBooker());
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
 
-        List<Booking> resultBooking = new ArrayList<>();
-        LocalDateTime today = LocalDateTime.now();
-        switch (state) {
-            case ALL:
-                resultBooking.addAll(bookingStorage.findByItemIds(itemIds));
-                break;
-            case PAST:
-                resultBooking.addAll(bookingStorage.findPastByItemIds(itemIds, today));
-                break;
-            case CURRENT:
-                resultBooking.addAll(bookingStorage.findCurrentByItemIds(itemIds, today));
-                break;
-            case FUTURE:
-                resultBooking.addAll(bookingStorage.findFutureByItemIds(itemIds, today));
-                break;
-            case WAITING:
-                resultBooking.addAll(bookingStorage.findByStatusEqualsAndItemIdInOrderByStartDesc(Status.WAITING, itemIds));
-                break;
-            case REJECTED:
-                resultBooking.addAll(bookingStorage.findByStatusEqualsAndItemIdInOrderByStartDesc(Status.REJECTED, itemIds));
-                break;
-        }
+        return bookingStorage.findBy(spec, query -> query.sortBy(sort).limit(size).all());
+    }
 
-        if (resultBooking.isEmpty()) {
+    private void throwIfFirstPage(BookingCursor cursor) {
+        if (cursor == null) {
             throw new NotFoundException("Бронирований с данным статусом не найдено");
         }
-
-        return mapBookingListToBookingDtoList(resultBooking);
     }
 
     private List<BookingDto> mapBookingListToBookingDtoList(List<Booking> bookings) {
         List<BookingDto> bookingDtos = new ArrayList<>();
         for (int i = 0; i < bookings.size(); i++) {
-            bookingDtos.add(mapper.map(bookings.get(i), BookingDto.class));
+            bookingDtos.add(bookingMapper.toBookingDto(bookings.get(i)));
         }
 
         return bookingDtos;
@@ -0,0 +1,229 @@
+package ru.practicum.shareit.generator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет таблицы schema.sql синтетическими данными пакетными JDBC-вставками.
+ * <p>
+ * Набор детерминирован при фиксированном seed. Первые powerOwners пользователей владеют
+ * по powerOwnerItems вещей, остальные вещи распределены равномерно. Популярность вещей
+ * подчиняется закону Ципфа, поэтому у популярных вещей длинная история бронирований;
+ * бронирования одной вещи не пересекаются. Идентификаторы назначаются явно, начиная
+ * после уже существующих строк.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DatasetGenerator {
+    public static final String[] WORDS = {"дрель", "перфоратор", "лестница", "палатка", "велосипед", "самокат",
+            "шуруповёрт", "пила", "рюкзак", "байдарка", "проектор", "фотоаппарат", "штатив", "гитара", "sup-доска",
+            "мангал", "коляска", "сноуборд", "лыжи", "удочка", "генератор", "компрессор", "болгарка", "стремянка"};
+    private static final String[] ADJECTIVES = {"новый", "мощный", "лёгкий", "складной", "компактный", "профессиональный",
+            "детский", "туристический", "аккумуляторный", "большой"};
+    private static final String[] COMMENTS = {"Всё отлично, спасибо!", "Работает как надо",
+            "Немного потёртый, но исправный", "Владелец пунктуальный", "Рекомендую", "Пригодилось на выходных"};
+    private static final String[] TABLES = {"users", "requests", "items", "bookings", "comments"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatasetSummary generate(GeneratorSettings settings) {
+        Random random = new Random(settings.getSeed());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        long userBase = maxId("users");
+        long requestBase = maxId("requests");
+        long itemBase = maxId("items");
+        long bookingBase = maxId("bookings");
+        long commentBase = maxId("comments");
+
+        Batch users = new Batch("insert into users (id, name, email, email_key) values (?, ?, ?, ?)", settings);
+        for (long i = 1; i <= settings.getUsers(); i++) {
+            long id = userBase + i;
+            String email = "user" + id + "@shareit.test";
+            users.add(id, "user" + id, email, email);
+        }
+        users.flush();
+
+        Batch requests = new Batch("insert into requests (id, description, requester_id, created) values (?, ?, ?, ?)",
+                settings);
+        for (long i = 1; i <= settings.getRequests(); i++) {
+            requests.add(requestBase + i, "Нужен " + word(random, WORDS), randomUser(random, userBase, settings),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(settings.getHistoryDays() * 24 * 60 + 1))));
+        }
+        requests.flush();
+
+        Batch items = new Batch("insert into items (id, owner_id, request_id, name, description, is_available) "
+                + "values (?, ?, ?, ?, ?, ?)", settings);
+        long powerOwnedItems = (long) Math.min(settings.getPowerOwners(), settings.getUsers())
+                * settings.getPowerOwnerItems();
+        for (long i = 1; i <= settings.getItems(); i++) {
+            long owner = i <= powerOwnedItems
+                    ? userBase + 1 + (i - 1) / settings.getPowerOwnerItems()
+                    : randomUser(random, userBase, settings);
+            Long request = settings.getRequests() > 0 && random.nextDouble() < settings.getRequestedItemShare()
+                    ? requestBase + 1 + random.nextInt(settings.getRequests())
+                    : null;
+            String word = word(random, WORDS);
+            items.add(itemBase + i, owner, request, word + " " + (itemBase + i),
+                    word(random, ADJECTIVES) + " " + word + ", " + word(random, WORDS), random.nextInt(10) > 0);
+        }
+        items.flush();
+
+        int bookingCount = settings.getItems() > 0 ? settings.getBookings() : 0;
+        int commentCount = 0;
+        if (bookingCount > 0) {
+            commentCount = generateBookings(settings, random, now, userBase, itemBase, bookingBase, commentBase);
+        }
+        if (commentCount > 0) {
+            jdbcTemplate.update("update items set "
+                    + "comment_count = (select count(*) from comments c where c.item_id = items.id), "
+                    + "last_comment_at = (select max(c.created) from comments c where c.item_id = items.id) "
+                    + "where id > ?", itemBase);
+        }
+
+        DatasetSummary summary = new DatasetSummary(settings.getUsers(), settings.getRequests(), settings.getItems(),
+                bookingCount, commentCount);
+        log.info("Сгенерирован набор данных: {}", summary);
+        return summary;
+    }
+
+    /**
+     * Переводит генераторы identity-колонок за максимальный id, чтобы последующие вставки
+     * приложением не конфликтовали с явно назначенными идентификаторами.
+     */
+    public void alignIdentities() {
+        for (String table : TABLES) {
+            jdbcTemplate.execute("alter table " + table + " alter column id restart with " + (maxId(table) + 1));
+        }
+    }
+
+    private int generateBookings(GeneratorSettings settings, Random random, LocalDateTime now, long userBase,
+                                 long itemBase, long bookingBase, long commentBase) {
+        int itemCount = settings.getItems();
+        ZipfSampler popularity = new ZipfSampler(itemCount, settings.getZipfExponent());
+        int[] itemByRank = shuffledRanks(itemCount, random);
+
+        // каждой вещи отводится шаг, обратно пропорциональный её ожидаемому числу бронирований,
+        // чтобы история любой вещи укладывалась примерно в historyDays
+        long windowMinutes = settings.getHistoryDays() * 24L * 60;
+        long origin = now.minusDays(settings.getHistoryDays()).toEpochSecond(ZoneOffset.UTC) / 60;
+        long[] nextFree = new long[itemCount];
+        long[] step = new long[itemCount];
+        for (int rank = 1; rank <= itemCount; rank++) {
+            int item = itemByRank[rank - 1];
+            double expected = Math.max(1, popularity.probability(rank) * settings.getBookings());
+            step[item] = Math.max(60, (long) (windowMinutes / expected));
+            nextFree[item] = origin + (long) (random.nextDouble() * step[item]);
+        }
+
+        long nowMinutes = now.toEpochSecond(ZoneOffset.UTC) / 60;
+        Batch bookings = new Batch("insert into bookings (id, status, start_date, end_date, item_id, booker_id) "
+                + "values (?, ?, ?, ?, ?, ?)", settings);
+        Batch comments = new Batch("insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)",
+                settings);
+        int commentCount = 0;
+        for (long i = 1; i <= settings.getBookings(); i++) {
+            int item = itemByRank[popularity.sample(random) - 1];
+            long start = nextFree[item] + (long) (random.nextDouble() * step[item] / 2);
+            long end = start + Math.max(30, (long) (step[item] / 4 + random.nextDouble() * step[item] / 4));
+            nextFree[item] = end;
+
+            long booker = randomUser(random, userBase, settings);
+            Status status = status(random, start > nowMinutes);
+            bookings.add(bookingBase + i, status.name(), timestamp(start), timestamp(end), itemBase + 1 + item, booker);
+
+            if (status == Status.APPROVED && end < nowMinutes && random.nextDouble() < settings.getCommentShare()) {
+                commentCount++;
+                long created = Math.min(nowMinutes, end + random.nextInt(7 * 24 * 60));
+                comments.add(commentBase + commentCount, word(random, COMMENTS), itemBase + 1 + item, booker,
+                        timestamp(created));
+            }
+        }
+        bookings.flush();
+        comments.flush();
+        return commentCount;
+    }
+
+    private static Status status(Random random, boolean future) {
+        int dice = random.nextInt(10);
+        if (dice == 0) {
+            return Status.REJECTED;
+        }
+        if (future && dice == 1) {
+            return Status.WAITING;
+        }
+        if (future && dice == 2) {
+            return Status.CANCELED;
+        }
+        return Status.APPROVED;
+    }
+
+    private static int[] shuffledRanks(int n, Random random) {
+        int[] ranks = new int[n];
+        for (int i = 0; i < n; i++) {
+            ranks[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = swap;
+        }
+        return ranks;
+    }
+
+    private static long randomUser(Random random, long userBase, GeneratorSettings settings) {
+        return userBase + 1 + random.nextInt(settings.getUsers());
+    }
+
+    private static String word(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+
+    private static Timestamp timestamp(long epochMinutes) {
+        return Timestamp.valueOf(LocalDateTime.ofEpochSecond(epochMinutes * 60, 0, ZoneOffset.UTC));
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private class Batch {
+        private final String sql;
+        private final int size;
+        private final List<Object[]> rows;
+
+        Batch(String sql, GeneratorSettings settings) {
+            this.sql = sql;
+            this.size = Math.max(settings.getBatchSize(), 1);
+            this.rows = new ArrayList<>(size);
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == size) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.generator;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Запуск генератора из командной строки:
+ * java -jar shareit-server.jar --spring.profiles.active=generate --shareit.generator.bookings=5000000
+ * (для H2 добавить профили test и h2-file). Профиль generate отключает веб-сервер,
+ * поэтому после заполнения базы приложение завершается само, а индексы в памяти не строятся
+ * (см. {@link #NOT_GENERATING}).
+ */
+@Profile(DatasetGeneratorRunner.PROFILE)
+@Configuration
+@RequiredArgsConstructor
+public class DatasetGeneratorRunner implements ApplicationRunner {
+    public static final String PROFILE = "generate";
+    /**
+     * Условие для слушателей ApplicationReadyEvent, которые строят индексы в памяти:
+     * в разовом запуске генератора они никому не нужны, а на миллионах строк занимают минуты.
+     */
+    public static final String NOT_GENERATING = "!@environment.matchesProfiles('" + PROFILE + "')";
+
+    private final DatasetGenerator generator;
+    private final ConfigurableApplicationContext context;
+
+    @Bean
+    @ConfigurationProperties(prefix = "shareit.generator")
+    public static GeneratorSettings generatorSettings() {
+        return new GeneratorSettings();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generator.generate(context.getBean(GeneratorSettings.class));
+        generator.alignIdentities();
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.generator;
+
+import lombok.Data;
+
+@Data
+public class DatasetSummary {
+    private final int users;
+    private final int requests;
+    private final int items;
+    private final int bookings;
+    private final int comments;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.generator;
+
+import lombok.Data;
+
+/**
+ * Параметры синтетического набора данных. Значения по умолчанию дают ~1 млн бронирований.
+ */
+@Data
+public class GeneratorSettings {
+    private long seed = 42;
+    private int users = 100_000;
+    private int items = 200_000;
+    private int powerOwners = 20;
+    private int powerOwnerItems = 2_000;
+    private int requests = 20_000;
+    private double requestedItemShare = 0.1;
+    private int bookings = 1_000_000;
+    private double zipfExponent = 1.1;
+    private int historyDays = 3 * 365;
+    private double commentShare = 0.2;
+    private int batchSize = 5_000;
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.generator;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Выборка рангов 1..n с распределением Ципфа: P(k) ~ 1 / k^s. Таблица накопленных вероятностей
+ * строится один раз, каждая выборка — двоичный поиск.
+ */
+class ZipfSampler {
+    private final double[] cdf;
+
+    ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Количество рангов должно быть положительным");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    /**
+     * Доля выборок, приходящаяся на ранг k (1..n).
+     */
+    double probability(int rank) {
+        return rank == 1 ? cdf[0] : cdf[rank - 1] - cdf[rank - 2];
+    }
+
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cdf.length - 1) + 1;
+    }
+}
@@ -1,15 +1,22 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.dto.comment.CommentCursor;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.dto.comment.CreateCommentDto;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemSuggestIndex;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -19,6 +26,10 @@ import java.util.List;
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String DEFAULT_PAGE_SIZE = "20";
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ItemServiceImpl itemService;
 
     @PostMapping
@@ -46,13 +57,54 @@ public class ItemController {
         return itemService.getItemById(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilitySlotDto> getAvailability(@PathVariable long itemId,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getItemComments(@PathVariable long itemId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        CommentCursor position = cursor == null || cursor.isBlank() ? null : CommentCursor.decode(cursor);
+
+        List<CommentDto> comments = itemService.getItemComments(itemId, position, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, CommentCursor.of(comments.getLast()).encode());
+        }
+        return response.body(comments);
+    }
+
     @GetMapping
     public List<ItemDtoWithBookings> getAllItemsOfUser(@RequestHeader("X-Sharer-User-Id") long ownerId) {
         return itemService.getAllItemsOfUser(ownerId);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItem(@RequestParam String text) {
-        return itemService.searchItem(text);
+    public List<ItemDto> searchItem(@RequestParam String text,
+                                    @RequestParam(defaultValue = "0") int from,
+                                    @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        if (from < 0) {
+            throw new BadRequestException("Индекс первого элемента не может быть отрицательным");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return itemService.searchItem(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > ItemSuggestIndex.MAX_SUGGESTIONS) {
+            throw new BadRequestException("Количество подсказок должно быть от 1 до " + ItemSuggestIndex.MAX_SUGGESTIONS);
+        }
+        return itemService.suggestItemNames(prefix, size);
     }
 }
@@ -1,14 +1,36 @@
 package ru.practicum.shareit.item.dao;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentStorage extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(long itemId);
+    @EntityGraph(attributePaths = {"item", "author"})
+    List<Comment> findByItemIdOrderByCreatedDescIdDesc(long itemId, Limit limit);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @EntityGraph(attributePaths = {"item", "author"})
+    @Query("select c from Comment c where c.item.id = :itemId " +
+            "and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<Comment> findByItemIdBefore(long itemId, LocalDateTime created, long id, Limit limit);
+
+    /**
+     * Id последних limit комментариев каждой из вещей.
+     */
+    @Query(value = "select id from (" +
+            "select c.id, row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn " +
+            "from comments c where c.item_id in (:itemIds)) recent " +
+            "where rn <= :limit", nativeQuery = true)
+    List<Long> findRecentIdsByItemIdIn(Collection<Long> itemIds, int limit);
+
+    @EntityGraph(attributePaths = {"item", "author"})
+    List<Comment> findByIdInOrderByCreatedDescIdDesc(Collection<Long> ids);
 
 }
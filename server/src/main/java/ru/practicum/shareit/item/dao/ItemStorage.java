@@ -1,29 +1,57 @@
 package ru.practicum.shareit.item.dao;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface ItemStorage extends JpaRepository<Item, Long> {
+public interface ItemStorage extends JpaRepository<Item, Long>, ItemStorageCustom {
 
     List<Item> findByOwner(long owner);
 
+    boolean existsByOwner(long owner);
+
     List<Item> findByRequestId(long requestId);
 
     List<Item> findByRequestIdIn(List<Long> requestIds);
 
-    @Query("select i.id from Item i where i.owner = :ownerId")
-    List<Long> findItemIdByOwnerId(long ownerId);
+    List<Item> findByAvailableTrue();
 
+    /**
+     * Доступные вещи, в названии или описании которых встречается text: сначала совпадения
+     * в названии, затем более новые.
+     */
     @Query("select i from Item i " +
             "where (upper(i.name) like upper(concat('%', :text, '%')) " +
             "or upper(i.description) like upper(concat('%', :text, '%'))) " +
-            "and i.available = true")
-    List<Item> findByNameOrDescriptionContainingIgnoreCaseAndIsAvailable(String text);
-
-    @Query("select i.owner from Item i where i.id = :itemId")
-    Long findOwnerIdByItemId(long itemId);
+            "and i.available = true " +
+            "order by case when upper(i.name) like upper(concat('%', :text, '%')) then 0 else 1 end, i.id desc")
+    List<Item> findAvailableByText(String text, Limit limit);
+
+    /**
+     * Обновляет агрегаты комментариев одним запросом в обход контекста персистентности:
+     * уже загруженная вещь их не видит, её перечитывает ItemStorageCustom.refresh.
+     */
+    /**
+     * Названия доступных вещей, начинающиеся с prefix (в нижнем регистре, с экранированными % и _):
+     * одинаковые без учёта регистра объединяются, сначала самые частые.
+     */
+    @Query("select min(trim(i.name)) from Item i " +
+            "where i.available = true and trim(i.name) <> '' " +
+            "and lower(trim(i.name)) like concat(:prefix, '%') escape '\\' " +
+            "group by lower(trim(i.name)) " +
+            "order by count(i) desc, lower(trim(i.name))")
+    List<String> findAvailableNamesByPrefix(String prefix, Limit limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Item i set i.commentCount = i.commentCount + 1, " +
+            "i.lastCommentAt = case when i.lastCommentAt is null or i.lastCommentAt < :created " +
+            "then :created else i.lastCommentAt end " +
+            "where i.id = :itemId")
+    int addComment(long itemId, LocalDateTime created);
 
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dao;
+
+import ru.practicum.shareit.item.model.Item;
+
+public interface ItemStorageCustom {
+
+    /**
+     * Перечитывает из базы одну управляемую вещь, не трогая остальной контекст персистентности.
+     */
+    void refresh(Item item);
+
+}
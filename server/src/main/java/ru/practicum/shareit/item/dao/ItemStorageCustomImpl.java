@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dao;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.model.Item;
+
+@RequiredArgsConstructor
+class ItemStorageCustomImpl implements ItemStorageCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public void refresh(Item item) {
+        entityManager.refresh(item);
+    }
+}
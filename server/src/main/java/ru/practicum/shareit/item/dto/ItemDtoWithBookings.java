@@ -4,6 +4,7 @@ import lombok.Data;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,4 +17,6 @@ public class ItemDtoWithBookings {
     private BookingDto lastBooking;
     private BookingDto nextBooking;
     private List<CommentDto> comments = new ArrayList<>();
+    private long commentCount;
+    private LocalDateTime lastCommentAt;
 }
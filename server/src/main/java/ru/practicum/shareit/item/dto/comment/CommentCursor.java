@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.dto.comment;
+
+import lombok.Data;
+import ru.practicum.shareit.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в ленте комментариев вещи, упорядоченной по (created, id) по убыванию.
+ * Клиенту передаётся в виде непрозрачной строки.
+ */
+@Data
+public class CommentCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime created;
+    private final long id;
+
+    public static CommentCursor of(CommentDto comment) {
+        return new CommentCursor(comment.getCreated(), comment.getId());
+    }
+
+    public String encode() {
+        String raw = created + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new CommentCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Неверно указан курсор для постраничного просмотра", e);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.LocalDateTime;
+
 /**
  * TODO Sprint add-controllers.
  */
@@ -25,4 +27,10 @@ public class Item {
     private Boolean available;
     @Column(name = "request_id")
     private Long requestId;
+    // агрегаты по комментариям меняются только запросом ItemStorage.addComment,
+    // поэтому сохранение вещи целиком не затирает параллельно добавленный комментарий
+    @Column(name = "comment_count", insertable = false, updatable = false)
+    private long commentCount;
+    @Column(name = "last_comment_at", insertable = false, updatable = false)
+    private LocalDateTime lastCommentAt;
 }
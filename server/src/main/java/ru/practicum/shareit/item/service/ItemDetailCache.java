@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Кэш собранных карточек вещи (вещь с комментариями) для GET /items/{itemId}. Ограничен по размеру
+ * и времени жизни записи; метрики публикуются в actuator как cache.gets{cache=itemDetail}.
+ * Закэшированный объект общий для всех читателей и не должен изменяться.
+ * <p>
+ * Карточка собирается вне вычисления Caffeine: загрузка из базы внутри compute держит монитор
+ * узла кэша и на виртуальных потоках закрепляет поток-носитель на время запроса к базе.
+ * Поэтому одновременные промахи по одной вещи могут собрать карточку несколько раз.
+ */
+@Component
+public class ItemDetailCache {
+    private static final String CACHE_NAME = "itemDetail";
+
+    private final Cache<Long, ItemDtoWithBookings> details;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemDetailCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.item.cache.max-size:10000}") long maxSize,
+                           @Value("${shareit.item.cache.ttl:5m}") Duration ttl) {
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, CACHE_NAME);
+    }
+
+    public ItemDtoWithBookings get(long itemId, LongFunction<ItemDtoWithBookings> loader) {
+        ItemDtoWithBookings cached = details.getIfPresent(itemId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = invalidations.get();
+        ItemDtoWithBookings loaded = loader.apply(itemId);
+        details.put(itemId, loaded);
+        // карточка, собранная до параллельного сброса, в кэше не остаётся
+        if (invalidations.get() != stamp) {
+            details.invalidate(itemId);
+        }
+        return loaded;
+    }
+
+    /**
+     * Сбрасывает карточку вещи. Внутри транзакции сброс повторяется после её фиксации,
+     * чтобы не осталась карточка, собранная параллельным чтением до фиксации.
+     */
+    public void invalidate(long itemId) {
+        evict(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(itemId);
+                }
+            });
+        }
+    }
+
+    private void evict(long itemId) {
+        invalidations.incrementAndGet();
+        details.invalidate(itemId);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш страниц поиска: нормализованный запрос и границы страницы → id найденных вещей.
+ * Ограничен по размеру и времени жизни записи. Изменение вещи в ItemSearchIndex сбрасывает
+ * только те записи, запрос которых встречается в прежнем или новом названии или описании вещи;
+ * перестроение индекса сбрасывает кэш целиком. Пока индекс не готов, результаты не кэшируются.
+ * Попадания и промахи публикуются в actuator как метрики cache.gets{cache=itemSearch}.
+ */
+@Component
+public class ItemSearchCache {
+    private static final String CACHE_NAME = "itemSearch";
+
+    private final ItemSearchIndex searchIndex;
+    private final Cache<Key, List<Long>> pages;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemSearchCache(ItemSearchIndex searchIndex,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.max-size:10000}") long maxSize,
+                           @Value("${shareit.search.cache.ttl:60s}") Duration ttl) {
+        this.searchIndex = searchIndex;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, CACHE_NAME);
+        searchIndex.addListener(this::invalidate);
+        searchIndex.addRebuildListener(this::invalidateAll);
+    }
+
+    public List<Item> search(String text, int from, int size) {
+        Key key = new Key(normalize(text), from, size);
+        List<Long> ids = pages.getIfPresent(key);
+        if (ids != null) {
+            List<Item> items = resolve(ids);
+            if (items != null) {
+                return items;
+            }
+        }
+
+        // результат, посчитанный до параллельного изменения индекса, в кэш не попадает
+        long stamp = invalidations.get();
+        List<Item> items = searchIndex.search(text, from, size);
+        if (searchIndex.isReady() && invalidations.get() == stamp) {
+            pages.put(key, items.stream().map(Item::getId).toList());
+        }
+        return items;
+    }
+
+    private void invalidate(Item before, Item after) {
+        invalidations.incrementAndGet();
+        List<String> texts = new ArrayList<>(4);
+        for (Item item : Arrays.asList(before, after)) {
+            if (item != null) {
+                texts.add(normalize(item.getName()));
+                texts.add(normalize(item.getDescription()));
+            }
+        }
+        pages.asMap().keySet().removeIf(key -> texts.stream().anyMatch(text -> text.contains(key.term)));
+    }
+
+    private void invalidateAll() {
+        invalidations.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private List<Item> resolve(List<Long> ids) {
+        List<Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Item item = searchIndex.get(id);
+            if (item == null) {
+                return null;
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    @Data
+    private static final class Key {
+        private final String term;
+        private final int from;
+        private final int size;
+    }
+}
@@ -0,0 +1,311 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.generator.DatasetGeneratorRunner;
+import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Триграммный индекс доступных вещей по названию и описанию. Отвечает на поиск подстроки
+ * без учёта регистра так же, как запрос upper(...) like '%text%', но без обращения к базе:
+ * кандидаты берутся из пересечения списков триграмм запроса и затем проверяются целиком.
+ * Строится из таблицы items при старте и поддерживается ItemServiceImpl после каждой записи;
+ * о каждом изменении сообщает подписчикам (см. {@link #addListener}). Пока построение
+ * не завершено (isReady), ItemServiceImpl ищет запросом к базе.
+ * <p>
+ * Результаты ранжируются по числу вхождений запроса в название, при равенстве — по числу вхождений
+ * в описание, затем выше более новые вещи (больший id): совпадение в названии всегда важнее любого
+ * числа совпадений в описании. Страница отбирается кучей
+ * размера from + size, поэтому полностью упорядочивать все совпадения не нужно.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final Comparator<Hit> RANKING = Comparator.<Hit>comparingInt(hit -> hit.nameMatches)
+            .thenComparingInt(hit -> hit.descriptionMatches)
+            .thenComparingLong(hit -> hit.document.item.getId())
+            .reversed();
+
+    private final ItemStorage itemStorage;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<BiConsumer<Item, Item>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> rebuildListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean ready;
+
+    /**
+     * Снимок читается под блокировкой записи: изменение, зафиксированное после чтения снимка,
+     * ждёт окончания построения и применяется поверх него, а не затирается устаревшей копией вещи.
+     */
+    @EventListener(classes = ApplicationReadyEvent.class, condition = DatasetGeneratorRunner.NOT_GENERATING)
+    public void rebuild() {
+        ready = false;
+        int size;
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            List<Item> items = itemStorage.findByAvailableTrue();
+            items.forEach(this::add);
+            size = items.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuildListeners.forEach(Runnable::run);
+        ready = true;
+        log.info("Поисковый индекс вещей построен: {} вещей, {} триграмм", size, postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Страница [from, from + size) доступных вещей, в названии или описании которых встречается text,
+     * в порядке убывания релевантности.
+     */
+    public List<Item> search(String text, int from, int size) {
+        String query = normalize(text);
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        // в голове кучи — худшее из отобранных совпадений
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(limit, 1024), RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            for (Document document : candidates(query)) {
+                Hit hit = new Hit(document, occurrences(document.name, query),
+                        occurrences(document.description, query));
+                if (hit.nameMatches == 0 && hit.descriptionMatches == 0) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(hit);
+                } else if (RANKING.compare(hit, top.peek()) < 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Hit[] ranked = new Hit[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = top.poll();
+        }
+        List<Item> page = new ArrayList<>();
+        for (int i = from; i < ranked.length; i++) {
+            page.add(ranked[i].document.item);
+        }
+        return page;
+    }
+
+    /**
+     * Проиндексированная доступная вещь или null.
+     */
+    public Item get(long itemId) {
+        lock.readLock().lock();
+        try {
+            Document document = documents.get(itemId);
+            return document == null ? null : document.item;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Подписка на изменения индекса: слушатель получает прежнее и новое состояние вещи
+     * (null, если вещь не была или перестала быть доступной). Вызывается после применения изменения.
+     */
+    public void addListener(BiConsumer<Item, Item> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Подписка на перестроение индекса целиком: слушатель вызывается после построения,
+     * до того как индекс станет готов (isReady).
+     */
+    public void addRebuildListener(Runnable listener) {
+        rebuildListeners.add(listener);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Приводит индекс в соответствие с сохранённой вещью. Внутри транзакции изменение
+     * применяется только после её фиксации.
+     */
+    public void update(Item item) {
+        Item snapshot = copyOf(item);
+        Runnable apply = () -> {
+            Document before;
+            lock.writeLock().lock();
+            try {
+                before = remove(snapshot.getId());
+                if (Boolean.TRUE.equals(snapshot.getAvailable())) {
+                    add(snapshot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Item after = Boolean.TRUE.equals(snapshot.getAvailable()) ? snapshot : null;
+            listeners.forEach(listener -> listener.accept(before == null ? null : before.item, after));
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private Iterable<Document> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.values();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (long gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Document> result = new ArrayList<>();
+        for (Long id : lists.getFirst()) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(documents.get(id));
+            }
+        }
+        return result;
+    }
+
+    private void add(Item item) {
+        Document document = new Document(copyOf(item));
+        documents.put(item.getId(), document);
+        for (long gram : document.grams()) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(item.getId());
+        }
+    }
+
+    private Document remove(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return null;
+        }
+        for (long gram : document.grams()) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+        return document;
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static int occurrences(String text, String query) {
+        if (query.isEmpty()) {
+            return 1;
+        }
+        int count = 0;
+        for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + query.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Item copyOf(Item item) {
+        Item copy = new Item();
+        copy.setId(item.getId());
+        copy.setOwner(item.getOwner());
+        copy.setName(item.getName());
+        copy.setDescription(item.getDescription());
+        copy.setAvailable(item.getAvailable());
+        copy.setRequestId(item.getRequestId());
+        return copy;
+    }
+
+    private static final class Hit {
+        private final Document document;
+        private final int nameMatches;
+        private final int descriptionMatches;
+
+        private Hit(Document document, int nameMatches, int descriptionMatches) {
+            this.document = document;
+            this.nameMatches = nameMatches;
+            this.descriptionMatches = descriptionMatches;
+        }
+    }
+
+    private static final class Document {
+        private final Item item;
+        private final String name;
+        private final String description;
+
+        private Document(Item item) {
+            this.item = item;
+            this.name = normalize(item.getName());
+            this.description = normalize(item.getDescription());
+        }
+
+        private Set<Long> grams() {
+            Set<Long> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.dto.comment.CommentCursor;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.dto.comment.CreateCommentDto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ItemService {
@@ -21,6 +24,12 @@ public interface ItemService {
 
     List<ItemDtoWithBookings> getAllItemsOfUser(long ownerId);
 
-    List<ItemDto> searchItem(String text);
+    List<CommentDto> getItemComments(long itemId, CommentCursor cursor, int size);
+
+    List<ItemDto> searchItem(String text, int from, int size);
+
+    List<String> suggestItemNames(String prefix, int size);
+
+    List<AvailabilitySlotDto> getAvailability(long itemId, LocalDate from, LocalDate to);
 
 }
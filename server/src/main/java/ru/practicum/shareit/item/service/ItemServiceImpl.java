@@ -1,44 +1,67 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dao.BookingStorage;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.ItemLocks;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.ForbiddenException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dao.CommentStorage;
 import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.dto.comment.CommentCursor;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.dto.comment.CreateCommentDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserStorage;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
-    private final ModelMapper modelMapper;
+    public static final int RECENT_COMMENTS = 10;
+    private static final int MAX_AVAILABILITY_DAYS = 3660;
+
+    private final ItemMapper itemMapper;
+    private final CommentMapper commentMapper;
+    private final BookingMapper bookingMapper;
     private final ItemStorage itemStorage;
     private final UserStorage userStorage;
     private final BookingStorage bookingStorage;
     private final CommentStorage commentStorage;
+    private final BookingIntervalIndex intervalIndex;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemSearchCache searchCache;
+    private final ItemDetailCache detailCache;
+    private final ItemLocks itemLocks;
 
     @Override
     public ItemDto addNewItem(CreateItemDto request, long userId) {
-        Item item = modelMapper.map(request, Item.class);
+        Item item = itemMapper.toItem(request);
 
         if (request.getName().isBlank()) {
             throw new BadRequestException("Название вещи не может быть пустым");
@@ -48,10 +71,13 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Пользователь с таким id не найден");
         }
         item.setOwner(userId);
-        return modelMapper.map(itemStorage.save(item), ItemDto.class);
+        Item saved = itemStorage.save(item);
+        itemLocks.withLock(saved.getId(), () -> updateIndexes(saved));
+        return itemMapper.toItemDto(saved);
     }
 
     @Override
+    @Transactional
     public CommentDto addNewComment(CreateCommentDto request, long itemId, long userId) {
         if (!bookingStorage.existsItemIdByBookerId(userId)) {
             throw new BadRequestException("Оставить комментарий можно на ранее арендованную вещь");
@@ -62,7 +88,7 @@ public class ItemServiceImpl implements ItemService {
             throw new BadRequestException("Оставить комментарий можно после завершения аренды");
         }
 
-        Comment comment = modelMapper.map(request, Comment.class);
+        Comment comment = commentMapper.toComment(request);
         comment.setAuthor(userStorage.findById(userId).orElseThrow(
                 () -> new NotFoundException("Пользователь с таким id не найден")
         ));
@@ -71,7 +97,11 @@ public class ItemServiceImpl implements ItemService {
         ));
         comment.setCreated(LocalDateTime.now());
 
-        return modelMapper.map(commentStorage.save(comment), CommentDto.class);
+        CommentDto saved = commentMapper.toCommentDto(commentStorage.save(comment));
+        itemStorage.addComment(itemId, comment.getCreated());
+        itemStorage.refresh(comment.getItem());
+        detailCache.invalidate(itemId);
+        return saved;
     }
 
     @Override
@@ -83,38 +113,34 @@ public class ItemServiceImpl implements ItemService {
             throw new ForbiddenException("Внесение изменений доступно только владельцу");
         }
 
-        Item item = itemStorage.getReferenceById(itemId);
-        if (request.getName() != null) {
-            item.setName(request.getName());
-        }
-        if (request.getDescription() != null) {
-            item.setDescription(request.getDescription());
-        }
-        if (request.getAvailable() != null) {
-            item.setAvailable(request.getAvailable());
-        }
+        // запись и обновление индексов под одной блокировкой: индексы получают изменения вещи
+        // в том же порядке, в каком они попали в базу
+        Item saved = itemLocks.withLock(itemId, () -> {
+            Item item = itemStorage.getReferenceById(itemId);
+            if (request.getName() != null) {
+                item.setName(request.getName());
+            }
+            if (request.getDescription() != null) {
+                item.setDescription(request.getDescription());
+            }
+            if (request.getAvailable() != null) {
+                item.setAvailable(request.getAvailable());
+            }
+            return updateIndexes(itemStorage.save(item));
+        });
+        detailCache.invalidate(itemId);
+        return itemMapper.toItemDto(saved);
+    }
 
-        return modelMapper.map(itemStorage.save(item), ItemDto.class);
+    private Item updateIndexes(Item saved) {
+        searchIndex.update(saved);
+        suggestIndex.update(saved);
+        return saved;
     }
 
     @Override
     public ItemDtoWithBookings getItemById(Long itemId) {
-        Item item = itemStorage.findById(itemId).orElseThrow(
-                () -> new NotFoundException("Запрашиваемая вещь не была найдена")
-        );
-
-        ItemDtoWithBookings dtoWithBookings = modelMapper.map(item, ItemDtoWithBookings.class);
-
-        List<Comment> comments = commentStorage.findByItemId(itemId);
-        if (!comments.isEmpty()) {
-            List<CommentDto> commentDtos = new ArrayList<>();
-            for (Comment c : comments) {
-                commentDtos.add(modelMapper.map(c, CommentDto.class));
-            }
-            dtoWithBookings.setComments(commentDtos);
-        }
-
-        return dtoWithBookings;
+        return detailCache.get(itemId, this::loadItemDetail);
     }
 
     @Override
@@ -125,8 +151,12 @@ public class ItemServiceImpl implements ItemService {
         }
 
         List<Long> itemIds = new ArrayList<>();
+        List<Long> commentedItemIds = new ArrayList<>();
         for (Item item : items) {
             itemIds.add(item.getId());
+            if (item.getCommentCount() > 0) {
+                commentedItemIds.add(item.getId());
+            }
         }
         LocalDateTime now = LocalDateTime.now();
 
@@ -136,13 +166,13 @@ public class ItemServiceImpl implements ItemService {
         Map<Long, List<Booking>> nextBookings = bookingStorage.findNextBookings(itemIds, now)
                 .stream()
                 .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-        Map<Long, List<Comment>> comments = commentStorage.findByItemIdIn(itemIds)
+        Map<Long, List<Comment>> comments = findRecentComments(commentedItemIds)
                 .stream()
                 .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
 
         List<ItemDtoWithBookings> dtos = new ArrayList<>();
         for (Item item : items) {
-            dtos.add(modelMapper.map(item, ItemDtoWithBookings.class));
+            dtos.add(itemMapper.toItemDtoWithBookings(item));
         }
 
         for (ItemDtoWithBookings dto : dtos) {
@@ -150,18 +180,18 @@ public class ItemServiceImpl implements ItemService {
 
             if (lastBookings.containsKey(id)) {
                 Booking lastBooking = lastBookings.get(id).getFirst();
-                dto.setLastBooking(modelMapper.map(lastBooking, BookingDto.class));
+                dto.setLastBooking(bookingMapper.toBookingDto(lastBooking));
             }
 
             if (nextBookings.containsKey(id)) {
                 Booking nextBooking = nextBookings.get(id).getFirst();
-                dto.setNextBooking(modelMapper.map(nextBooking, BookingDto.class));
+                dto.setNextBooking(bookingMapper.toBookingDto(nextBooking));
             }
 
             if (comments.containsKey(id)) {
                 List<CommentDto> itemComments = comments.get(id)
                         .stream()
-                        .map(comment -> modelMapper.map(comment, CommentDto.class))
+                        .map(comment -> commentMapper.toCommentDto(comment))
                         .toList();
                 dto.setComments(itemComments);
             }
@@ -171,11 +201,113 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> searchItem(String text) {
-        List<Item> itemsFound = itemStorage.findByNameOrDescriptionContainingIgnoreCaseAndIsAvailable(text);
+    public List<CommentDto> getItemComments(long itemId, CommentCursor cursor, int size) {
+        if (!itemStorage.existsById(itemId)) {
+            throw new NotFoundException("Запрашиваемая вещь не была найдена");
+        }
+
+        List<Comment> comments = cursor == null
+                ? commentStorage.findByItemIdOrderByCreatedDescIdDesc(itemId, Limit.of(size))
+                : commentStorage.findByItemIdBefore(itemId, cursor.getCreated(), cursor.getId(), Limit.of(size));
+
+        return comments.stream()
+                .map(comment -> commentMapper.toCommentDto(comment))
+                .toList();
+    }
+
+    @Override
+    public List<ItemDto> searchItem(String text, int from, int size) {
+        List<Item> itemsFound = searchIndex.isReady()
+                ? searchCache.search(text, from, size)
+                : searchDatabase(text, from, size);
 
         return itemsFound.stream()
-                .map(item -> modelMapper.map(item, ItemDto.class))
+                .map(item -> itemMapper.toItemDto(item))
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, int size) {
+        if (!suggestIndex.isReady()) {
+            // до построения индекса подсказки берутся запросом к базе
+            String pattern = prefix.strip().toLowerCase(Locale.ROOT).replaceAll("([\\\\%_])", "\\\\$1");
+            return itemStorage.findAvailableNamesByPrefix(pattern, Limit.of(size));
+        }
+        return suggestIndex.suggest(prefix, size);
+    }
+
+    @Override
+    public List<AvailabilitySlotDto> getAvailability(long itemId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("Дата окончания периода не может быть раньше даты начала");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_AVAILABILITY_DAYS) {
+            throw new BadRequestException("Период не может превышать " + MAX_AVAILABILITY_DAYS + " дней");
+        }
+        if (!itemStorage.existsById(itemId)) {
+            throw new NotFoundException("Запрашиваемая вещь не была найдена");
+        }
+
+        // пока индекс строится, он ещё не знает всех бронирований: занятые дни читаются из базы
+        BitSet busyDays = intervalIndex.isReady()
+                ? intervalIndex.busyDays(itemId, from, to)
+                : BookingIntervalIndex.busyDaysOf(bookingStorage.findOverlappingIntervals(itemId,
+                        from.atStartOfDay(), to.plusDays(1).atStartOfDay(), BookingIntervalIndex.BLOCKING_STATUSES),
+                from, to);
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        int slotStart = 0;
+        while (slotStart < days) {
+            boolean busy = busyDays.get(slotStart);
+            int slotEnd = busy ? busyDays.nextClearBit(slotStart) : busyDays.nextSetBit(slotStart);
+            if (slotEnd < 0 || slotEnd > days) {
+                slotEnd = (int) days;
+            }
+            slots.add(new AvailabilitySlotDto(from.plusDays(slotStart), from.plusDays(slotEnd - 1), !busy));
+            slotStart = slotEnd;
+        }
+
+        return slots;
+    }
+
+    private ItemDtoWithBookings loadItemDetail(long itemId) {
+        Item item = itemStorage.findById(itemId).orElseThrow(
+                () -> new NotFoundException("Запрашиваемая вещь не была найдена")
+        );
+
+        ItemDtoWithBookings dtoWithBookings = itemMapper.toItemDtoWithBookings(item);
+
+        if (item.getCommentCount() > 0) {
+            List<Comment> comments = commentStorage.findByItemIdOrderByCreatedDescIdDesc(itemId,
+                    Limit.of(RECENT_COMMENTS));
+            List<CommentDto> commentDtos = new ArrayList<>();
+            for (Comment c : comments) {
+                commentDtos.add(commentMapper.toCommentDto(c));
+            }
+            dtoWithBookings.setComments(commentDtos);
+        }
+
+        return dtoWithBookings;
+    }
+
+    /**
+     * Поиск до построения индекса: запрос к базе с тем же смыслом совпадения. Порядок близок
+     * к индексу (совпадения в названии выше), но без учёта числа вхождений.
+     */
+    private List<Item> searchDatabase(String text, int from, int size) {
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        List<Item> found = itemStorage.findAvailableByText(text, Limit.of(limit));
+        return from >= found.size() ? List.of() : found.subList(from, found.size());
+    }
+
+    private List<Comment> findRecentComments(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> commentIds = commentStorage.findRecentIdsByItemIdIn(itemIds, RECENT_COMMENTS);
+        if (commentIds.isEmpty()) {
+            return List.of();
+        }
+        return commentStorage.findByIdInOrderByCreatedDescIdDesc(commentIds);
+    }
 }
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.generator.DatasetGeneratorRunner;
+import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Префиксное дерево названий доступных вещей для подсказок при вводе. Каждый узел хранит
+ * до MAX_SUGGESTIONS самых частых названий своего поддерева, поэтому ответ на запрос — спуск
+ * по префиксу без обхода поддерева. Одинаковые без учёта регистра названия объединяются.
+ * Строится из таблицы items при старте и поддерживается ItemServiceImpl после каждой записи.
+ * Пока построение не завершено (isReady), ItemServiceImpl берёт подсказки запросом к базе.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSuggestIndex {
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final Comparator<Node> POPULARITY = Comparator.<Node>comparingInt(node -> node.count)
+            .reversed()
+            .thenComparing(node -> node.key);
+
+    private final ItemStorage itemStorage;
+
+    private final Node root = new Node(null, '\0');
+    private final Map<Long, String> keysByItemId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /**
+     * Снимок читается под блокировкой записи, как в ItemSearchIndex: изменение, зафиксированное
+     * после чтения снимка, применяется поверх него.
+     */
+    @EventListener(classes = ApplicationReadyEvent.class, condition = DatasetGeneratorRunner.NOT_GENERATING)
+    public void rebuild() {
+        ready = false;
+        int size;
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.top = List.of();
+            keysByItemId.clear();
+            List<Item> items = itemStorage.findByAvailableTrue();
+            items.forEach(item -> add(item.getId(), item.getName()));
+            size = items.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Индекс подсказок построен: {} вещей", size);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Не более size самых частых названий доступных вещей, начинающихся с prefix.
+     */
+    public List<String> suggest(String prefix, int size) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return node.top.stream()
+                    .limit(size)
+                    .map(terminal -> terminal.name)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Приводит индекс в соответствие с сохранённой вещью. Внутри транзакции изменение
+     * применяется только после её фиксации. Изменения одной вещи должны приходить в порядке
+     * записи в базу, иначе в дереве останется устаревшее название: ItemServiceImpl вызывает
+     * update под блокировкой вещи из ItemLocks, которая держится до конца транзакции.
+     */
+    public void update(Item item) {
+        long itemId = item.getId();
+        String name = item.getName();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        Runnable apply = () -> {
+            lock.writeLock().lock();
+            try {
+                remove(itemId);
+                if (available) {
+                    add(itemId, name);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void add(long itemId, String name) {
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        keysByItemId.put(itemId, key);
+
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        for (int i = 0; i < key.length(); i++) {
+            Node parent = node;
+            node = node.children.computeIfAbsent(key.charAt(i), symbol -> new Node(parent, symbol));
+            path.push(node);
+        }
+        node.count++;
+        node.key = key;
+        node.name = name.strip();
+        path.forEach(Node::recomputeTop);
+    }
+
+    private void remove(long itemId) {
+        String key = keysByItemId.remove(itemId);
+        if (key == null) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        node.count--;
+
+        // подъём к корню с удалением опустевших узлов
+        while (node != null) {
+            Node parent = node.parent;
+            if (parent != null && node.count == 0 && node.children.isEmpty()) {
+                parent.children.remove(node.symbol);
+            } else {
+                node.recomputeTop();
+            }
+            node = parent;
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private final Node parent;
+        private final char symbol;
+        private final Map<Character, Node> children = new HashMap<>();
+        private String key;
+        private String name;
+        private int count;
+        private List<Node> top = List.of();
+
+        private Node(Node parent, char symbol) {
+            this.parent = parent;
+            this.symbol = symbol;
+        }
+
+        private void recomputeTop() {
+            List<Node> candidates = new ArrayList<>();
+            if (count > 0) {
+                candidates.add(this);
+            }
+            for (Node child : children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(POPULARITY);
+            top = List.copyOf(candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.request.mapper;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.request.dto.CreateRequestDto;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestDtoWithItems;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+@Mapper(componentModel = "spring", uses = UserMapper.class,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface RequestMapper {
+
+    RequestDto toRequestDto(Request request);
+
+    @Mapping(target = "items", ignore = true)
+    RequestDtoWithItems toRequestDtoWithItems(Request request);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "requester", ignore = true)
+    @Mapping(target = "created", ignore = true)
+    Request toRequest(CreateRequestDto request);
+
+}
@@ -1,7 +1,6 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -10,11 +9,13 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemStorage;
 import ru.practicum.shareit.item.dto.ItemDtoForItemRequest;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.ItemRequestStorage;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoWithItems;
+import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.dao.UserStorage;
 import ru.practicum.shareit.user.model.User;
@@ -28,7 +29,8 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
-    private final ModelMapper mapper;
+    private final RequestMapper requestMapper;
+    private final ItemMapper itemMapper;
 
     private final UserStorage userStorage;
     private final ItemStorage itemStorage;
@@ -40,12 +42,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 () -> new NotFoundException("Пользователь с id " + requesterId + " не найден")
         );
 
-        Request request = mapper.map(createRequestDto, Request.class);
+        Request request = requestMapper.toRequest(createRequestDto);
 
         request.setRequester(user);
         request.setCreated(LocalDateTime.now());
 
-        return mapper.map(itemRequestStorage.save(request), RequestDtoWithItems.class);
+        return requestMapper.toRequestDtoWithItems(itemRequestStorage.save(request));
     }
 
     @Override
@@ -66,7 +68,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         List<RequestDtoWithItems> dtos = new ArrayList<>();
         for (Request request : requests) {
-            dtos.add(mapper.map(request, RequestDtoWithItems.class));
+            dtos.add(requestMapper.toRequestDtoWithItems(request));
         }
 
         for (RequestDtoWithItems dto : dtos) {
@@ -75,7 +77,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             if (itemsSuggested.containsKey(id)) {
                 dto.setItems(itemsSuggested.get(id)
                         .stream()
-                        .map(item -> mapper.map(item, ItemDtoForItemRequest.class))
+                        .map(item -> itemMapper.toItemDtoForItemRequest(item))
                         .toList());
             }
         }
@@ -88,10 +90,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         Request request = itemRequestStorage.findById(requestId).orElseThrow(
                 () -> new NotFoundException("Не удалось найти запрос с id " + requestId)
         );
-        RequestDtoWithItems dto = mapper.map(request, RequestDtoWithItems.class);
+        RequestDtoWithItems dto = requestMapper.toRequestDtoWithItems(request);
 
         List<ItemDtoForItemRequest> itemsSuggested = itemStorage.findByRequestId(requestId).stream()
-                .map(item -> mapper.map(item, ItemDtoForItemRequest.class))
+                .map(item -> itemMapper.toItemDtoForItemRequest(item))
                 .toList();
         if (!itemsSuggested.isEmpty()) {
             dto.setItems(itemsSuggested);
@@ -108,7 +110,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         return requests.getContent()
                 .stream()
-                .map(request -> mapper.map(request, RequestDto.class))
+                .map(request -> requestMapper.toRequestDto(request))
                 .toList();
     }
 }
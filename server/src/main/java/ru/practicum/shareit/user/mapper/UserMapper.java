@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UserMapper {
+
+    UserDto toUserDto(User user);
+
+    @Mapping(target = "id", ignore = true)
+    User toUser(CreateUserDto request);
+
+}
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.user.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.util.Locale;
+
 /**
  * TODO Sprint add-controllers.
  */
@@ -19,4 +22,13 @@ public class User {
     private Long id;
     private String name;
     private String email;
+    // email в нижнем регистре: по нему уникальный индекс uq_user_email не пускает дубликаты с другим регистром
+    @Column(name = "email_key")
+    @Setter(AccessLevel.NONE)
+    private String emailKey;
+
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailKey = email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
 }
@@ -2,7 +2,8 @@ package ru.practicum.shareit.user.service;
 
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -10,26 +11,27 @@ import ru.practicum.shareit.user.dao.UserStorage;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @Data
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
-    private final ModelMapper modelMapper;
+    private static final String EMAIL_CONSTRAINT = "uq_user_email";
+
+    private final UserMapper userMapper;
     private final UserStorage userStorage;
 
     @Override
     public UserDto createUser(CreateUserDto request) {
-        User user = modelMapper.map(request, User.class);
-        if (userStorage.findByEmailLike(user.getEmail()).isPresent()) {
-            throw new ConflictException("Данный email уже занят другим пользователем");
-        }
+        User user = userMapper.toUser(request);
 
-        return modelMapper.map(userStorage.save(user), UserDto.class);
+        return userMapper.toUserDto(saveWithUniqueEmail(user));
     }
 
     @Override
@@ -45,11 +47,7 @@ public class UserServiceImpl implements UserService {
             user.setName(request.getName());
         }
 
-        if (userStorage.findByEmailLikeAndIdNot(user.getEmail(), user.getId()).isPresent()) {
-            throw new ConflictException("Данный email уже занят другим пользователем");
-        }
-
-        return modelMapper.map(userStorage.save(user), UserDto.class);
+        return userMapper.toUserDto(saveWithUniqueEmail(user));
     }
 
     @Override
@@ -58,7 +56,7 @@ public class UserServiceImpl implements UserService {
                 () -> new NotFoundException("Пользователь не был найден")
         );
 
-        return modelMapper.map(user, UserDto.class);
+        return userMapper.toUserDto(user);
     }
 
     @Override
@@ -67,7 +65,7 @@ public class UserServiceImpl implements UserService {
         List<UserDto> dtos = new ArrayList<>();
 
         for (User user : users) {
-            dtos.add(modelMapper.map(user, UserDto.class));
+            dtos.add(userMapper.toUserDto(user));
         }
 
         return dtos;
@@ -79,4 +77,25 @@ public class UserServiceImpl implements UserService {
             userStorage.deleteById(userId);
         }
     }
+
+    /**
+     * Уникальность email проверяет сама база, поэтому отдельного запроса перед записью нет
+     * и два одновременных запроса с одним адресом не проходят оба.
+     */
+    private User saveWithUniqueEmail(User user) {
+        try {
+            return userStorage.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new ConflictException("Данный email уже занят другим пользователем");
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
+    }
 }
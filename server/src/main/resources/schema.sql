@@ -4,7 +4,9 @@ CREATE TABLE IF NOT EXISTS users (
   id bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name varchar(250) NOT NULL,
   email varchar(250) NOT NULL,
-  CONSTRAINT pk_user PRIMARY KEY (id)
+  email_key varchar(250) NOT NULL,
+  CONSTRAINT pk_user PRIMARY KEY (id),
+  CONSTRAINT uq_user_email UNIQUE (email_key)
 );
 
 CREATE TABLE IF NOT EXISTS requests (
@@ -22,6 +24,8 @@ CREATE TABLE IF NOT EXISTS items (
   name varchar(100) NOT NULL,
   description varchar(500) NOT NULL,
   is_available bool NOT NULL,
+  comment_count bigint NOT NULL DEFAULT 0,
+  last_comment_at timestamp without time zone,
   CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
@@ -42,4 +46,12 @@ CREATE TABLE IF NOT EXISTS comments (
   author_id bigint NOT NULL REFERENCES users(id),
   created timestamp without time zone NOT NULL,
   CONSTRAINT pk_comments PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS requests_requester_created_idx ON requests (requester_id, created);
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created, id);
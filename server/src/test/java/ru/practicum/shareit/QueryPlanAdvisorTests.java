@@ -0,0 +1,221 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingSpecifications;
+import ru.practicum.shareit.booking.dao.BookingStorage;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.State;
+import ru.practicum.shareit.generator.DatasetGenerator;
+import ru.practicum.shareit.generator.GeneratorSettings;
+import ru.practicum.shareit.item.dao.CommentStorage;
+import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dao.ItemRequestStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Советчик по индексам: выполняет горячие запросы репозиториев на сгенерированном наборе данных,
+ * перехватывает отправленный в базу SQL и прогоняет его через EXPLAIN.
+ * Тест падает, если план хотя бы одного запроса содержит полный просмотр таблицы
+ * или обращение по индексу, которого нет в schema.sql.
+ * Полные выборки по назначению (перестройка индексов в памяти, список всех запросов) сюда не входят.
+ */
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.QueryPlanAdvisorTests$CapturedStatements")
+public class QueryPlanAdvisorTests {
+    private static final String TABLE_SCAN = ".tableScan";
+    private static final Pattern INDEX_ACCESS = Pattern.compile("/\\* PUBLIC\\.(\\w+):");
+    private static final String IMPLICIT_INDEX_PREFIX = "CONSTRAINT_INDEX";
+
+    @Autowired
+    DatasetGenerator generator;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ItemStorage itemStorage;
+    @Autowired
+    BookingStorage bookingStorage;
+    @Autowired
+    CommentStorage commentStorage;
+    @Autowired
+    ItemRequestStorage requestStorage;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long requestId;
+    private final Map<String, String> leadingColumns = new HashMap<>();
+    private final Set<String> declaredLeadingColumns = new HashSet<>();
+
+    @BeforeEach
+    public void setUp() {
+        GeneratorSettings settings = new GeneratorSettings();
+        settings.setUsers(200);
+        settings.setItems(2_000);
+        settings.setPowerOwners(2);
+        settings.setPowerOwnerItems(200);
+        settings.setRequests(200);
+        settings.setBookings(10_000);
+        settings.setBatchSize(1000);
+        generator.generate(settings);
+
+        ownerId = queryForLong("select owner_id from items group by owner_id order by count(*) desc limit 1");
+        bookerId = queryForLong("select booker_id from bookings group by booker_id order by count(*) desc limit 1");
+        itemId = queryForLong("select item_id from comments group by item_id order by count(*) desc limit 1");
+        requestId = queryForLong("select request_id from items where request_id is not null limit 1");
+
+        jdbcTemplate.query("select index_name, table_name, column_name from information_schema.index_columns "
+                + "where table_schema = 'PUBLIC' and ordinal_position = 1", row -> {
+            String index = row.getString("index_name");
+            String column = row.getString("table_name") + "." + row.getString("column_name");
+            leadingColumns.put(index, column);
+            if (!index.startsWith(IMPLICIT_INDEX_PREFIX)) {
+                declaredLeadingColumns.add(column);
+            }
+        });
+    }
+
+    @Test
+    public void hotQueriesUseIndexesTest() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ownerItemIds = itemStorage.findByOwner(ownerId).stream().map(Item::getId).toList();
+        BookingCursor cursor = new BookingCursor(now, Long.MAX_VALUE);
+        long requesterId = queryForLong("select requester_id from requests where id = " + requestId);
+        // у пары должно быть ровно одно бронирование, иначе запрос окончания аренды не вернёт одно значение
+        Map<String, Object> singleBooking = jdbcTemplate.queryForMap("select b.booker_id, b.item_id from bookings b "
+                + "join items i on i.id = b.item_id where i.owner_id <> b.booker_id "
+                + "group by b.booker_id, b.item_id having count(*) = 1 limit 1");
+        long singleBookerId = ((Number) singleBooking.get("booker_id")).longValue();
+        long singleItemId = ((Number) singleBooking.get("item_id")).longValue();
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("ItemStorage.findByOwner", () -> itemStorage.findByOwner(ownerId));
+        queries.put("ItemStorage.existsByOwner", () -> itemStorage.existsByOwner(ownerId));
+        queries.put("ItemStorage.findByRequestId", () -> itemStorage.findByRequestId(requestId));
+        queries.put("ItemStorage.findByRequestIdIn", () -> itemStorage.findByRequestIdIn(List.of(requestId)));
+        queries.put("ItemStorage.addComment", () -> itemStorage.addComment(itemId, now));
+        queries.put("BookingStorage.existsOverlapping", () -> bookingStorage.existsOverlapping(itemId,
+                now, now.plusDays(1), List.of(Status.WAITING, Status.APPROVED)));
+        queries.put("BookingStorage.existsItemIdByBookerId", () -> bookingStorage.existsItemIdByBookerId(bookerId));
+        queries.put("BookingStorage.findEndOfBookingByUserIdAndItemId",
+                () -> bookingStorage.findEndOfBookingByUserIdAndItemId(singleBookerId, singleItemId));
+        queries.put("BookingStorage.findWithItemAndBookerById", () -> bookingStorage.findWithItemAndBookerById(1L));
+        queries.put("BookingStorage.findNextBookings",
+                () -> bookingStorage.findNextBookings(ownerItemIds, now));
+        queries.put("BookingStorage.findLastBookings",
+                () -> bookingStorage.findLastBookings(ownerItemIds, now));
+        for (State state : State.values()) {
+            queries.put("BookingStorage.findBy(byBooker, " + state + ")", () -> findBookings(
+                    BookingSpecifications.byBooker(bookerId), state, now, cursor));
+            queries.put("BookingStorage.findBy(byItemOwner, " + state + ")", () -> findBookings(
+                    BookingSpecifications.byItemOwner(ownerId), state, now, cursor));
+        }
+        queries.put("CommentStorage.findByItemIdOrderByCreatedDescIdDesc",
+                () -> commentStorage.findByItemIdOrderByCreatedDescIdDesc(itemId, Limit.of(10)));
+        queries.put("CommentStorage.findByItemIdBefore",
+                () -> commentStorage.findByItemIdBefore(itemId, now, Long.MAX_VALUE, Limit.of(10)));
+        queries.put("CommentStorage.findRecentIdsByItemIdIn",
+                () -> commentStorage.findRecentIdsByItemIdIn(List.of(itemId), 10));
+        queries.put("CommentStorage.findByIdInOrderByCreatedDescIdDesc",
+                () -> commentStorage.findByIdInOrderByCreatedDescIdDesc(List.of(1L, 2L)));
+        queries.put("ItemRequestStorage.findByRequesterIdOrderByCreated",
+                () -> requestStorage.findByRequesterIdOrderByCreated(requesterId));
+
+        List<String> violations = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            CapturedStatements.SQL.clear();
+            query.run();
+            assertTrue(!CapturedStatements.SQL.isEmpty(), name + " не обратился к базе");
+            for (String sql : CapturedStatements.SQL) {
+                String plan = explain(sql);
+                if (!usesDeclaredIndexes(plan)) {
+                    violations.add(name + ":\n" + plan);
+                }
+            }
+        });
+
+        assertTrue(violations.isEmpty(), "Запросы без подходящего индекса:\n" + String.join("\n\n", violations));
+    }
+
+    private void findBookings(Specification<Booking> byUser, State state,
+                              LocalDateTime now, BookingCursor cursor) {
+        bookingStorage.findBy(byUser
+                        .and(BookingSpecifications.byState(state, now))
+                        .and(BookingSpecifications.after(cursor))
+                        .and(BookingSpecifications.fetchItemAndBooker()),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "start", "id")).limit(20).all());
+    }
+
+    /**
+     * H2 сам создаёт индекс под каждый внешний ключ, а PostgreSQL — нет. Поэтому обращение по индексу
+     * засчитывается, только если по его ведущей колонке есть первичный ключ или индекс из schema.sql.
+     */
+    private boolean usesDeclaredIndexes(String plan) {
+        if (plan.contains(TABLE_SCAN)) {
+            return false;
+        }
+        Matcher access = INDEX_ACCESS.matcher(plan);
+        while (access.find()) {
+            if (!declaredLeadingColumns.contains(leadingColumns.get(access.group(1)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String explain(String sql) {
+        // план строится без значений параметров, поэтому их достаточно заполнить null
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("explain " + sql, statement -> {
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+        }, resultSet -> {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1));
+            }
+            return plan.toString();
+        });
+    }
+
+    private long queryForLong(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    public static class CapturedStatements implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@ActiveProfiles({"test", "virtual-threads"})
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-virtual-threads")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class VirtualThreadsProfileTests {
+
+    private final DataSource dataSource;
+    private final Environment environment;
+
+    @Test
+    public void profileEnablesVirtualThreadsAndWidensConnectionPoolTest() {
+        HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, dataSource);
+
+        assertEquals(Boolean.TRUE, environment.getProperty("spring.threads.virtual.enabled", Boolean.class));
+        assertEquals(50, hikari.getMaximumPoolSize());
+        assertEquals(5000, hikari.getConnectionTimeout());
+    }
+}
@@ -8,16 +8,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -106,7 +109,7 @@ public class BookingControllerTests {
         response.setId(1L);
         response.setStatus(Status.REJECTED);
 
-        when(service.findByStateForBooker(any(), anyLong()))
+        when(service.findByStateForBooker(any(), anyLong(), any(), anyInt()))
                 .thenReturn(List.of(response));
 
         mvc.perform(get("/bookings")
@@ -120,7 +123,7 @@ public class BookingControllerTests {
                 .andExpect(jsonPath("$[0].itemId", Matchers.is(response.getItemId()), Long.class))
                 .andExpect(jsonPath("$[0].status", Matchers.is(String.valueOf(response.getStatus()))));
 
-        verify(service, times(1)).findByStateForBooker(any(), anyLong());
+        verify(service, times(1)).findByStateForBooker(any(), anyLong(), any(), anyInt());
     }
 
     @Test
@@ -130,7 +133,7 @@ public class BookingControllerTests {
         response.setId(1L);
         response.setStatus(Status.REJECTED);
 
-        when(service.findByStateForOwner(any(), anyLong()))
+        when(service.findByStateForOwner(any(), anyLong(), any(), anyInt()))
                 .thenReturn(List.of(response));
 
         mvc.perform(get("/bookings/owner")
@@ -144,7 +147,36 @@ public class BookingControllerTests {
                 .andExpect(jsonPath("$[0].itemId", Matchers.is(response.getItemId()), Long.class))
                 .andExpect(jsonPath("$[0].status", Matchers.is(String.valueOf(response.getStatus()))));
 
-        verify(service, times(1)).findByStateForOwner(any(), anyLong());
+        verify(service, times(1)).findByStateForOwner(any(), anyLong(), any(), anyInt());
+    }
+
+    @Test
+    public void findByStateForOwnerReturnsNextCursorWhenPageIsFullTest() throws Exception {
+        CreateBookingDto request = createBooking();
+        BookingDto response = mapper.convertValue(request, BookingDto.class);
+        response.setId(7L);
+        response.setStart(LocalDateTime.of(2030, 1, 1, 12, 0));
+
+        when(service.findByStateForOwner(any(), anyLong(), any(), eq(1)))
+                .thenReturn(List.of(response));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(response).encode()));
+    }
+
+    @Test
+    public void findByStateForBookerWithInvalidCursorTest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
     }
 
     private CreateBookingDto createBooking() {
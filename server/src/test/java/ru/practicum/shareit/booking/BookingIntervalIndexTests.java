@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dao.BookingInterval;
+import ru.practicum.shareit.booking.dao.BookingStorage;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingIntervalIndexTests {
+
+    @Mock
+    BookingStorage bookingStorageMock;
+    private BookingIntervalIndex index;
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @BeforeEach
+    public void setUp() {
+        index = new BookingIntervalIndex(bookingStorageMock);
+    }
+
+    @Test
+    public void rebuildAndOverlapsTest() {
+        when(bookingStorageMock.findIntervalsByStatusIn(BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(intervalOf(createBooking(1L, 1L, 10, 20)), intervalOf(createBooking(2L, 1L, 30, 40))));
+
+        index.rebuild();
+
+        assertTrue(index.overlaps(1L, at(15), at(16)));
+        assertTrue(index.overlaps(1L, at(5), at(11)));
+        assertTrue(index.overlaps(1L, at(19), at(31)));
+        assertFalse(index.overlaps(1L, at(20), at(30)));
+        assertFalse(index.overlaps(1L, at(0), at(10)));
+        assertFalse(index.overlaps(2L, at(15), at(16)));
+    }
+
+    @Test
+    public void rebuildSkipsBookingsRemovedWhileBuildingTest() {
+        Booking rejected = createBooking(1L, 1L, 10, 20);
+        Booking kept = createBooking(2L, 1L, 30, 40);
+        // снимок прочитан до того, как параллельный запрос отклонил первое бронирование
+        when(bookingStorageMock.findIntervalsByStatusIn(BookingIntervalIndex.BLOCKING_STATUSES)).thenAnswer(invocation -> {
+            Booking update = createBooking(1L, 1L, 10, 20);
+            update.setStatus(Status.REJECTED);
+            index.update(update);
+            return List.of(intervalOf(rejected), intervalOf(kept));
+        });
+
+        assertFalse(index.isReady());
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertFalse(index.contains(rejected.getId()));
+        assertTrue(index.contains(kept.getId()));
+        assertFalse(index.overlaps(1L, at(15), at(16)));
+    }
+
+    @Test
+    public void updateRemovesRejectedBookingTest() {
+        Booking booking = createBooking(1L, 1L, 10, 20);
+        index.update(booking);
+        assertTrue(index.contains(booking.getId()));
+
+        booking.setStatus(Status.REJECTED);
+        index.update(booking);
+
+        assertFalse(index.contains(booking.getId()));
+        assertFalse(index.overlaps(1L, at(15), at(16)));
+    }
+
+    @Test
+    public void busyDaysFollowsAddedAndRemovedBookingsTest() {
+        LocalDate day = base.toLocalDate();
+        Booking first = createBooking(1L, 1L, 10, 30);
+        Booking second = createBooking(2L, 1L, 40, 48);
+        index.update(first);
+        index.update(second);
+
+        BitSet busy = index.busyDays(1L, day, day.plusDays(4));
+        assertEquals(BitSet.valueOf(new long[]{0b00011}), busy);
+
+        first.setStatus(Status.REJECTED);
+        index.update(first);
+
+        busy = index.busyDays(1L, day.minusDays(1), day.plusDays(4));
+        assertEquals(BitSet.valueOf(new long[]{0b00100}), busy);
+        assertTrue(index.busyDays(2L, day, day.plusDays(4)).isEmpty());
+    }
+
+    @Test
+    public void busyDaysOfMatchesIndexedBusyDaysTest() {
+        LocalDate day = base.toLocalDate();
+        List<Booking> bookings = List.of(createBooking(1L, 1L, -30, 10), createBooking(2L, 1L, 40, 48),
+                createBooking(3L, 1L, 70, 130));
+        bookings.forEach(index::update);
+
+        List<BookingInterval> intervals = bookings.stream().map(BookingIntervalIndexTests::intervalOf).toList();
+        for (int offset = -2; offset <= 3; offset++) {
+            LocalDate from = day.plusDays(offset);
+            LocalDate to = from.plusDays(4);
+            assertEquals(index.busyDays(1L, from, to), BookingIntervalIndex.busyDaysOf(intervals, from, to));
+        }
+    }
+
+    @Test
+    public void overlapsMatchesLinearScanTest() {
+        Random random = new Random(42);
+        List<Booking> bookings = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            int start = random.nextInt(10_000);
+            Booking booking = createBooking(id, 1L, start, start + 1 + random.nextInt(50));
+            bookings.add(booking);
+            index.update(booking);
+        }
+        for (int i = 0; i < 100; i++) {
+            Booking removed = bookings.remove(random.nextInt(bookings.size()));
+            removed.setStatus(Status.CANCELED);
+            index.update(removed);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            int start = random.nextInt(10_000);
+            int end = start + 1 + random.nextInt(50);
+            boolean expected = bookings.stream()
+                    .anyMatch(b -> b.getStart().isBefore(at(end)) && at(start).isBefore(b.getEnd()));
+
+            assertEquals(expected, index.overlaps(1L, at(start), at(end)));
+        }
+    }
+
+    private LocalDateTime at(int hours) {
+        return base.plusHours(hours);
+    }
+
+    private Booking createBooking(long id, long itemId, int startHours, int endHours) {
+        Item item = new Item();
+        item.setId(itemId);
+
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStatus(Status.APPROVED);
+        booking.setStart(at(startHours));
+        booking.setEnd(at(endHours));
+
+        return booking;
+    }
+
+    private static BookingInterval intervalOf(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd());
+    }
+}
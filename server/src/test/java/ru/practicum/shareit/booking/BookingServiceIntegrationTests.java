@@ -1,15 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.State;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -18,10 +26,21 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -31,6 +50,9 @@ public class BookingServiceIntegrationTests {
     private final BookingService bookingService;
     private final UserService userService;
     private final ItemService itemService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
 
     @Test
     public void addNewBookingTest() {
@@ -51,10 +73,10 @@ public class BookingServiceIntegrationTests {
         BookingDto booking = bookingService.addNewBooking(createBooking(item.getId()), user.getId());
 
         bookingService.updateBookingStatus(booking.getId(), true, user.getId());
-        assertEquals(Status.APPROVED, bookingService.getBookingInfoById(item.getId(), user.getId()).getStatus());
+        assertEquals(Status.APPROVED, bookingService.getBookingInfoById(booking.getId(), user.getId()).getStatus());
 
         bookingService.updateBookingStatus(booking.getId(), false, user.getId());
-        assertEquals(Status.REJECTED, bookingService.getBookingInfoById(item.getId(), user.getId()).getStatus());
+        assertEquals(Status.REJECTED, bookingService.getBookingInfoById(booking.getId(), user.getId()).getStatus());
     }
 
     @Test
@@ -68,6 +90,27 @@ public class BookingServiceIntegrationTests {
         assertThat(booking, equalTo(bookingFound));
     }
 
+    @Test
+    public void getBookingInfoByIdIssuesSingleStatementTest() {
+        UserDto owner = userService.createUser(createUser("yyy@www.test"));
+        ItemDto item = itemService.addNewItem(createItem("Test item"), owner.getId());
+        BookingDto booking = bookingService.addNewBooking(createBooking(item.getId()), owner.getId());
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        BookingDto bookingFound = bookingService.getBookingInfoById(booking.getId(), owner.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertThat(bookingFound.getBooker(), equalTo(owner));
+        statistics.setStatisticsEnabled(false);
+    }
+
     @Test
     public void findByStateForBookerTestPast() {
         UserDto booker = userService.createUser(createUser("gjhjh@ww.test"));
@@ -78,7 +121,7 @@ public class BookingServiceIntegrationTests {
         requestPast.setEnd(LocalDateTime.now().minusDays(10));
         bookingService.addNewBooking(requestPast, booker.getId());
 
-        BookingDto bookingPast = bookingService.findByStateForBooker(State.PAST, booker.getId()).getFirst();
+        BookingDto bookingPast = bookingService.findByStateForBooker(State.PAST, booker.getId(), null, 20).getFirst();
         assertThat(requestPast.getItemId(), equalTo(bookingPast.getItemId()));
     }
 
@@ -92,7 +135,7 @@ public class BookingServiceIntegrationTests {
         requestCurrent.setEnd(LocalDateTime.now().plusDays(10));
         bookingService.addNewBooking(requestCurrent, booker.getId());
 
-        BookingDto bookingCurrent = bookingService.findByStateForBooker(State.CURRENT, booker.getId()).getFirst();
+        BookingDto bookingCurrent = bookingService.findByStateForBooker(State.CURRENT, booker.getId(), null, 20).getFirst();
         assertThat(requestCurrent.getItemId(), equalTo(bookingCurrent.getItemId()));
     }
 
@@ -106,7 +149,7 @@ public class BookingServiceIntegrationTests {
         requestFuture.setEnd(LocalDateTime.now().plusDays(11));
         bookingService.addNewBooking(requestFuture, booker.getId());
 
-        BookingDto bookingFuture = bookingService.findByStateForBooker(State.FUTURE, booker.getId()).getFirst();
+        BookingDto bookingFuture = bookingService.findByStateForBooker(State.FUTURE, booker.getId(), null, 20).getFirst();
         assertThat(requestFuture.getItemId(), equalTo(bookingFuture.getItemId()));
     }
 
@@ -118,7 +161,7 @@ public class BookingServiceIntegrationTests {
         CreateBookingDto requestWaiting = createBooking(itemWaiting.getId());
         bookingService.addNewBooking(requestWaiting, booker.getId());
 
-        BookingDto bookingWaiting = bookingService.findByStateForBooker(State.WAITING, booker.getId()).getFirst();
+        BookingDto bookingWaiting = bookingService.findByStateForBooker(State.WAITING, booker.getId(), null, 20).getFirst();
         assertThat(requestWaiting.getItemId(), equalTo(bookingWaiting.getItemId()));
     }
 
@@ -131,7 +174,7 @@ public class BookingServiceIntegrationTests {
         BookingDto dto = bookingService.addNewBooking(requestRejected, booker.getId());
         bookingService.updateBookingStatus(dto.getId(), false, booker.getId());
 
-        BookingDto bookingRejected = bookingService.findByStateForBooker(State.REJECTED, booker.getId()).getFirst();
+        BookingDto bookingRejected = bookingService.findByStateForBooker(State.REJECTED, booker.getId(), null, 20).getFirst();
         assertThat(requestRejected.getItemId(), equalTo(bookingRejected.getItemId()));
     }
 
@@ -145,7 +188,7 @@ public class BookingServiceIntegrationTests {
         requestPast.setEnd(LocalDateTime.now().minusDays(10));
         bookingService.addNewBooking(requestPast, owner.getId());
 
-        BookingDto bookingPast = bookingService.findByStateForOwner(State.PAST, owner.getId()).getFirst();
+        BookingDto bookingPast = bookingService.findByStateForOwner(State.PAST, owner.getId(), null, 20).getFirst();
         assertThat(requestPast.getItemId(), equalTo(bookingPast.getItemId()));
     }
 
@@ -159,7 +202,7 @@ public class BookingServiceIntegrationTests {
         requestCurrent.setEnd(LocalDateTime.now().plusDays(10));
         bookingService.addNewBooking(requestCurrent, owner.getId());
 
-        BookingDto bookingCurrent = bookingService.findByStateForOwner(State.CURRENT, owner.getId()).getFirst();
+        BookingDto bookingCurrent = bookingService.findByStateForOwner(State.CURRENT, owner.getId(), null, 20).getFirst();
         assertThat(requestCurrent.getItemId(), equalTo(bookingCurrent.getItemId()));
     }
 
@@ -173,7 +216,7 @@ public class BookingServiceIntegrationTests {
         requestFuture.setEnd(LocalDateTime.now().plusDays(11));
         bookingService.addNewBooking(requestFuture, owner.getId());
 
-        BookingDto bookingFuture = bookingService.findByStateForOwner(State.FUTURE, owner.getId()).getFirst();
+        BookingDto bookingFuture = bookingService.findByStateForOwner(State.FUTURE, owner.getId(), null, 20).getFirst();
         assertThat(requestFuture.getItemId(), equalTo(bookingFuture.getItemId()));
     }
 
@@ -185,7 +228,7 @@ public class BookingServiceIntegrationTests {
         CreateBookingDto requestWaiting = createBooking(itemWaiting.getId());
         bookingService.addNewBooking(requestWaiting, owner.getId());
 
-        BookingDto bookingWaiting = bookingService.findByStateForOwner(State.WAITING, owner.getId()).getFirst();
+        BookingDto bookingWaiting = bookingService.findByStateForOwner(State.WAITING, owner.getId(), null, 20).getFirst();
         assertThat(requestWaiting.getItemId(), equalTo(bookingWaiting.getItemId()));
     }
 
@@ -198,10 +241,73 @@ public class BookingServiceIntegrationTests {
         BookingDto dto = bookingService.addNewBooking(requestRejected, owner.getId());
         bookingService.updateBookingStatus(dto.getId(), false, owner.getId());
 
-        BookingDto bookingRejected = bookingService.findByStateForOwner(State.REJECTED, owner.getId()).getFirst();
+        BookingDto bookingRejected = bookingService.findByStateForOwner(State.REJECTED, owner.getId(), null, 20).getFirst();
         assertThat(requestRejected.getItemId(), equalTo(bookingRejected.getItemId()));
     }
 
+    @Test
+    public void findByStateForOwnerPagesWithCursorTest() {
+        UserDto owner = userService.createUser(createUser("gjhjh@ww.test"));
+        ItemDto item = itemService.addNewItem(createItem("PAGED"), owner.getId());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 1; i <= 3; i++) {
+            CreateBookingDto request = createBooking(item.getId());
+            request.setStart(now.plusDays(i));
+            request.setEnd(now.plusDays(i).plusHours(1));
+            bookingService.addNewBooking(request, owner.getId());
+        }
+
+        List<BookingDto> firstPage = bookingService.findByStateForOwner(State.ALL, owner.getId(), null, 2);
+        BookingCursor cursor = BookingCursor.decode(BookingCursor.of(firstPage.getLast()).encode());
+        List<BookingDto> secondPage = bookingService.findByStateForOwner(State.ALL, owner.getId(), cursor, 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(1, secondPage.size());
+        assertTrue(firstPage.getFirst().getStart().isAfter(firstPage.getLast().getStart()));
+        assertTrue(firstPage.getLast().getStart().isAfter(secondPage.getFirst().getStart()));
+    }
+
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void addNewBookingInConcurrentTransactionsBooksItemOnceTest() throws Exception {
+        UserDto user = userService.createUser(createUser("concurrent@www.test"));
+        ItemDto item = itemService.addNewItem(createItem("Concurrency probe"), user.getId());
+        CreateBookingDto request = createBooking(item.getId());
+        CountDownLatch firstSaved = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<BookingDto> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                BookingDto booking = bookingService.addNewBooking(request, user.getId());
+                firstSaved.countDown();
+                // транзакция остаётся открытой, пока второй поток бронирует те же даты
+                sleep(300);
+                return booking;
+            }));
+            assertTrue(firstSaved.await(10, TimeUnit.SECONDS));
+            Future<BookingDto> second = executor.submit(() -> transactionTemplate.execute(
+                    status -> bookingService.addNewBooking(request, user.getId())));
+
+            assertEquals(item.getId(), first.get().getItem().getId());
+            ExecutionException failure = assertThrows(ExecutionException.class, second::get);
+            assertInstanceOf(ConflictException.class, failure.getCause());
+        } finally {
+            executor.shutdown();
+            jdbcTemplate.update("delete from bookings where item_id = ?", item.getId());
+            jdbcTemplate.update("delete from items where id = ?", item.getId());
+            jdbcTemplate.update("delete from users where id = ?", user.getId());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
 
     private CreateUserDto createUser(String email) {
         CreateUserDto request = new CreateUserDto();
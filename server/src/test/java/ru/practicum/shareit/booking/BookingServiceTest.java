@@ -5,26 +5,34 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.jpa.domain.Specification;
 import ru.practicum.shareit.booking.dao.BookingStorage;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.ItemLocks;
 import ru.practicum.shareit.booking.service.State;
 import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.ForbiddenException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserStorage;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -37,15 +45,18 @@ public class BookingServiceTest {
     ItemStorage itemStorageMock;
     @Mock
     BookingStorage bookingStorageMock;
+    @Mock
+    BookingIntervalIndex intervalIndexMock;
     private BookingService service;
-    private final ModelMapper mapper = new ModelMapper();
 
     @BeforeEach
     public void setUp() {
-        service = new BookingServiceImpl(mapper,
+        service = new BookingServiceImpl(new BookingMapperImpl(new ItemMapperImpl(), new UserMapperImpl()),
                 userStorageMock,
                 itemStorageMock,
-                bookingStorageMock);
+                bookingStorageMock,
+                intervalIndexMock,
+                new ItemLocks(4));
     }
 
     @Test
@@ -98,6 +109,69 @@ public class BookingServiceTest {
         verifyNoMoreInteractions(userStorageMock, itemStorageMock);
     }
 
+    @Test
+    public void addNewBookingOverlappingExistingBookingTest() {
+        User user = createUser(1L);
+        Item item = createItem(1L, 2L);
+        CreateBookingDto request = createRequest(item.getId());
+
+        when(userStorageMock.findById(user.getId()))
+                .thenReturn(Optional.of(user));
+        when(itemStorageMock.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        when(intervalIndexMock.isReady())
+                .thenReturn(true);
+        when(intervalIndexMock.overlaps(item.getId(), request.getStart(), request.getEnd()))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> service.addNewBooking(request, user.getId()));
+
+        verifyNoInteractions(bookingStorageMock);
+    }
+
+    @Test
+    public void addNewBookingChecksDatabaseUntilIndexIsReadyTest() {
+        User user = createUser(1L);
+        Item item = createItem(1L, 2L);
+        CreateBookingDto request = createRequest(item.getId());
+
+        when(userStorageMock.findById(user.getId()))
+                .thenReturn(Optional.of(user));
+        when(itemStorageMock.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        when(intervalIndexMock.isReady())
+                .thenReturn(false);
+        when(bookingStorageMock.existsOverlapping(item.getId(), request.getStart(), request.getEnd(),
+                BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> service.addNewBooking(request, user.getId()));
+
+        verify(intervalIndexMock, never()).overlaps(anyLong(), any(), any());
+        verify(bookingStorageMock, never()).save(any());
+    }
+
+    @Test
+    public void approveRejectedBookingOverlappingExistingBookingTest() {
+        User user = createUser(1L);
+        Item item = createItem(1L, 2L);
+        Booking booking = createBooking(user, item, 1L);
+        booking.setStatus(Status.REJECTED);
+
+        when(bookingStorageMock.findById(booking.getId()))
+                .thenReturn(Optional.of(booking));
+        when(intervalIndexMock.isReady())
+                .thenReturn(true);
+        when(intervalIndexMock.contains(booking.getId()))
+                .thenReturn(false);
+        when(intervalIndexMock.overlaps(item.getId(), booking.getStart(), booking.getEnd()))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> service.updateBookingStatus(booking.getId(), true, 2L));
+
+        verify(bookingStorageMock, never()).save(any());
+    }
+
     @Test
     public void updateBookingWithNonexistentBookingId() {
         when(bookingStorageMock.findById(anyLong()))
@@ -128,6 +202,8 @@ public class BookingServiceTest {
 
     @Test
     public void getBookingInfoByIdWithNonexistentUserTest() {
+        when(bookingStorageMock.findWithItemAndBookerById(anyLong()))
+                .thenReturn(Optional.empty());
         when(userStorageMock.existsById(anyLong()))
                 .thenReturn(false);
 
@@ -142,72 +218,111 @@ public class BookingServiceTest {
     public void getBookingInfoByIdWithNonexistentBookingTest() {
         User user = createUser(1L);
 
+        when(bookingStorageMock.findWithItemAndBookerById(anyLong()))
+                .thenReturn(Optional.empty());
         when(userStorageMock.existsById(user.getId()))
                 .thenReturn(true);
-        when(bookingStorageMock.existsById(anyLong()))
-                .thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> service.getBookingInfoById(1L, user.getId()));
 
-        verify(userStorageMock, times(1))
-                .existsById(user.getId());
         verify(bookingStorageMock, times(1))
-                .existsById(anyLong());
+                .findWithItemAndBookerById(anyLong());
         verifyNoMoreInteractions(userStorageMock, bookingStorageMock);
     }
 
     @Test
     public void getBookingInfoByIdByStrangerTest() {
         User booker = createUser(1L);
-        User owner = createUser(2L);
         User user = createUser(3L);
 
         Item item = createItem(1L, 2L);
         Booking booking = createBooking(booker, item, 1L);
 
+        when(bookingStorageMock.findWithItemAndBookerById(booking.getId()))
+                .thenReturn(Optional.of(booking));
         when(userStorageMock.existsById(user.getId()))
                 .thenReturn(true);
-        when(bookingStorageMock.existsById(booking.getId()))
-                .thenReturn(true);
-
-        when(bookingStorageMock.findItemIdByBookingId(booking.getId()))
-                .thenReturn(item.getId());
-        when(itemStorageMock.findOwnerIdByItemId(item.getId()))
-                .thenReturn(owner.getId());
-        when(bookingStorageMock.getReferenceById(booking.getId()))
-                .thenReturn(booking);
 
         assertThrows(ForbiddenException.class, () -> service.getBookingInfoById(booking.getId(), user.getId()));
 
+        verify(bookingStorageMock, times(1))
+                .findWithItemAndBookerById(booking.getId());
+        verifyNoMoreInteractions(itemStorageMock, bookingStorageMock);
+    }
+
+    @Test
+    public void getBookingInfoByIdByBookerTest() {
+        User booker = createUser(1L);
+        Item item = createItem(1L, 2L);
+        Booking booking = createBooking(booker, item, 1L);
+
+        when(bookingStorageMock.findWithItemAndBookerById(booking.getId()))
+                .thenReturn(Optional.of(booking));
+
+        service.getBookingInfoById(booking.getId(), booker.getId());
+
+        verify(bookingStorageMock, times(1))
+                .findWithItemAndBookerById(booking.getId());
         verifyNoMoreInteractions(userStorageMock, itemStorageMock, bookingStorageMock);
     }
 
     @Test
     public void findByStateForBookerWithNonexistentBookerTest() {
+        when(bookingStorageMock.findBy(any(Specification.class), any()))
+                .thenReturn(List.of());
         when(userStorageMock.existsById(anyLong()))
                 .thenReturn(false);
 
-        assertThrows(NotFoundException.class, () -> service.findByStateForBooker(State.PAST, 1L));
+        assertThrows(NotFoundException.class, () -> service.findByStateForBooker(State.PAST, 1L, null, 20));
 
         verify(userStorageMock, times(1))
                 .existsById(anyLong());
         verifyNoMoreInteractions(userStorageMock);
     }
 
+    @Test
+    public void findByStateForBookerWithBookingsSkipsUserCheckTest() {
+        User booker = createUser(1L);
+        Booking booking = createBooking(booker, createItem(1L, 2L), 1L);
+
+        when(bookingStorageMock.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(booking));
+
+        assertEquals(1, service.findByStateForBooker(State.ALL, booker.getId(), null, 20).size());
+
+        verify(bookingStorageMock, times(1)).findBy(any(Specification.class), any());
+        verifyNoMoreInteractions(userStorageMock, itemStorageMock, bookingStorageMock);
+    }
+
     @Test
     public void findByStateForOwnerWithNoItemsSuggestedTest() {
         User user = createUser(1L);
 
-        when(itemStorageMock.findItemIdByOwnerId(user.getId()))
+        when(bookingStorageMock.findBy(any(Specification.class), any()))
                 .thenReturn(List.of());
+        when(itemStorageMock.existsByOwner(user.getId()))
+                .thenReturn(false);
 
-        assertThrows(NotFoundException.class, () -> service.findByStateForOwner(State.PAST, user.getId()));
+        assertThrows(NotFoundException.class, () -> service.findByStateForOwner(State.PAST, user.getId(), null, 20));
 
         verify(itemStorageMock, times(1))
-                .findItemIdByOwnerId(user.getId());
+                .existsByOwner(user.getId());
         verifyNoMoreInteractions(itemStorageMock);
     }
 
+    @Test
+    public void findByStateForOwnerWithEmptyNextPageTest() {
+        User user = createUser(1L);
+
+        when(bookingStorageMock.findBy(any(Specification.class), any()))
+                .thenReturn(List.of());
+        when(itemStorageMock.existsByOwner(user.getId()))
+                .thenReturn(true);
+
+        assertEquals(List.of(), service.findByStateForOwner(State.ALL, user.getId(),
+                new BookingCursor(LocalDateTime.now(), 1L), 20));
+    }
+
 
     private User createUser(long id) {
         User user = new User();
@@ -3,9 +3,14 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dao.BookingInterval;
+import ru.practicum.shareit.booking.dao.BookingSpecifications;
 import ru.practicum.shareit.booking.dao.BookingStorage;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.State;
 import ru.practicum.shareit.item.dao.ItemStorage;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserStorage;
@@ -13,10 +18,12 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -30,37 +37,37 @@ class BookingStorageTests {
     UserStorage userStorage;
 
     @Test
-    public void findByBookerIdTest() {
+    public void existsItemIdByBookerIdTest() {
         Booking bookingCreated = createBooking();
         bookingCreated.setStart(LocalDateTime.now().plusDays(10));
         bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
         bookingStorage.save(bookingCreated);
 
-        Booking bookingFound = bookingStorage.findByBookerId(bookingCreated.getBooker().getId()).getFirst();
-
-        assertEquals(bookingCreated, bookingFound);
+        assertTrue(bookingStorage.existsItemIdByBookerId(bookingCreated.getBooker().getId()));
     }
 
     @Test
-    public void findByItemIdsTest() {
+    public void existsOverlappingTest() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         Booking bookingCreated = createBooking();
-        bookingCreated.setStart(LocalDateTime.now().plusDays(10));
-        bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
+        bookingCreated.setStart(now.plusDays(10));
+        bookingCreated.setEnd(now.plusDays(12));
         bookingStorage.save(bookingCreated);
 
-        Booking bookingFound = bookingStorage.findByItemIds(List.of(bookingCreated.getItem().getId())).getFirst();
-
-        assertEquals(bookingCreated, bookingFound);
-    }
-
-    @Test
-    public void existsItemIdByBookerIdTest() {
-        Booking bookingCreated = createBooking();
-        bookingCreated.setStart(LocalDateTime.now().plusDays(10));
-        bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
-        bookingStorage.save(bookingCreated);
-
-        assertTrue(bookingStorage.existsItemIdByBookerId(bookingCreated.getBooker().getId()));
+        long itemId = bookingCreated.getItem().getId();
+        LocalDateTime start = bookingCreated.getStart();
+
+        assertTrue(bookingStorage.existsOverlapping(itemId, start.plusDays(1), start.plusDays(3),
+                BookingIntervalIndex.BLOCKING_STATUSES));
+        assertFalse(bookingStorage.existsOverlapping(itemId, bookingCreated.getEnd(), start.plusDays(3),
+                BookingIntervalIndex.BLOCKING_STATUSES));
+        assertEquals(List.of(new BookingInterval(bookingCreated.getId(), itemId, start, bookingCreated.getEnd())),
+                bookingStorage.findOverlappingIntervals(itemId, start.plusDays(1), start.plusDays(3),
+                        BookingIntervalIndex.BLOCKING_STATUSES));
+        assertTrue(bookingStorage.findOverlappingIntervals(itemId, bookingCreated.getEnd(), start.plusDays(3),
+                BookingIntervalIndex.BLOCKING_STATUSES).isEmpty());
+        assertTrue(bookingStorage.findIntervalsByStatusIn(BookingIntervalIndex.BLOCKING_STATUSES).contains(
+                new BookingInterval(bookingCreated.getId(), itemId, bookingCreated.getStart(), bookingCreated.getEnd())));
     }
 
     @Test
@@ -80,136 +87,56 @@ class BookingStorageTests {
     }
 
     @Test
-    public void findCurrentByBookerIdTest() {
+    public void findAllByBookerAndStateTest() {
         Booking bookingCreated = createBooking();
         bookingCreated.setStart(LocalDateTime.now().minusDays(11));
         bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
         bookingStorage.save(bookingCreated);
 
         long bookerId = bookingCreated.getBooker().getId();
+        LocalDateTime now = LocalDateTime.now();
 
-        Booking bookingFound = bookingStorage.findCurrentByBookerId(bookerId, LocalDateTime.now()).getFirst();
-
-        assertEquals(bookingCreated, bookingFound);
-    }
-
-    @Test
-    public void findCurrentByItemIdsTest() {
-        Booking bookingCreated = createBooking();
-        bookingCreated.setStart(LocalDateTime.now().minusDays(11));
-        bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
-        bookingStorage.save(bookingCreated);
-
-        List<Long> itemIds = new ArrayList<>();
-        itemIds.add(bookingCreated.getItem().getId());
-
-        Booking bookingFound = bookingStorage.findCurrentByItemIds(itemIds, LocalDateTime.now()).getFirst();
-
-        assertEquals(bookingCreated, bookingFound);
-    }
-
-    @Test
-    public void findPastByBookerIdTest() {
-        Booking bookingCreated = createBooking();
-        bookingCreated.setStart(LocalDateTime.now().minusDays(2));
-        bookingCreated.setEnd(LocalDateTime.now().minusDays(1));
-        bookingStorage.save(bookingCreated);
-
-        long bookerId = bookingCreated.getBooker().getId();
-
-        Booking bookingFound = bookingStorage.findPastByBookerId(bookerId, LocalDateTime.now()).getFirst();
-
-        assertEquals(bookingCreated, bookingFound);
-    }
-
-    @Test
-    public void findPastByItemIdsTest() {
-        Booking bookingCreated = createBooking();
-        bookingCreated.setStart(LocalDateTime.now().minusDays(2));
-        bookingCreated.setEnd(LocalDateTime.now().minusDays(1));
-        bookingStorage.save(bookingCreated);
-
-        List<Long> itemIds = new ArrayList<>();
-        itemIds.add(bookingCreated.getItem().getId());
-
-        Booking bookingFound = bookingStorage.findPastByItemIds(itemIds, LocalDateTime.now()).getFirst();
-
-        assertEquals(bookingCreated, bookingFound);
-    }
-
-    @Test
-    public void findFutureByBookerIdTest() {
-        Booking bookingCreated = createBooking();
-        bookingCreated.setStart(LocalDateTime.now().plusDays(10));
-        bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
-        bookingStorage.save(bookingCreated);
-
-        long bookerId = bookingCreated.getBooker().getId();
-
-        Booking bookingFound = bookingStorage.findFutureByBookerId(bookerId, LocalDateTime.now()).getFirst();
+        Specification<Booking> current = BookingSpecifications.byBooker(bookerId)
+                .and(BookingSpecifications.byState(State.CURRENT, now));
+        Specification<Booking> past = BookingSpecifications.byBooker(bookerId)
+                .and(BookingSpecifications.byState(State.PAST, now));
 
-        assertEquals(bookingCreated, bookingFound);
+        assertEquals(bookingCreated, bookingStorage.findAll(current).getFirst());
+        assertTrue(bookingStorage.findAll(past).isEmpty());
     }
 
     @Test
-    public void findFutureByItemIdsTest() {
+    public void findAllByItemOwnerAndStateTest() {
         Booking bookingCreated = createBooking();
         bookingCreated.setStart(LocalDateTime.now().plusDays(10));
         bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
         bookingStorage.save(bookingCreated);
 
-        List<Long> itemIds = new ArrayList<>();
-        itemIds.add(bookingCreated.getItem().getId());
+        long ownerId = bookingCreated.getItem().getOwner();
+        LocalDateTime now = LocalDateTime.now();
 
-        Booking bookingFound = bookingStorage.findFutureByItemIds(itemIds, LocalDateTime.now()).getFirst();
+        Specification<Booking> future = BookingSpecifications.byItemOwner(ownerId)
+                .and(BookingSpecifications.byState(State.FUTURE, now))
+                .and(BookingSpecifications.fetchItemAndBooker());
+        Specification<Booking> rejected = BookingSpecifications.byItemOwner(ownerId)
+                .and(BookingSpecifications.byState(State.REJECTED, now));
 
-        assertEquals(bookingCreated, bookingFound);
+        assertEquals(bookingCreated, bookingStorage.findAll(future).getFirst());
+        assertTrue(bookingStorage.findAll(rejected).isEmpty());
     }
 
     @Test
-    public void findByStatusEqualsAndBookerIdEqualsOrderByStartDescTest() {
+    public void findWithItemAndBookerByIdTest() {
         Booking bookingCreated = createBooking();
         bookingCreated.setStart(LocalDateTime.now().plusDays(10));
         bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
         bookingStorage.save(bookingCreated);
 
-        Status status = bookingCreated.getStatus();
-        long bookerId = bookingCreated.getBooker().getId();
-
-        Booking bookingsFound = bookingStorage.findByStatusEqualsAndBookerIdEqualsOrderByStartDesc(status, bookerId).getFirst();
+        Booking bookingFound = bookingStorage.findWithItemAndBookerById(bookingCreated.getId()).orElseThrow();
 
-        assertEquals(bookingsFound, bookingCreated);
-    }
-
-    @Test
-    public void findByStatusEqualsAndItemIdInOrderByStartDescTest() {
-        Booking bookingCreated = createBooking();
-        bookingCreated.setStart(LocalDateTime.now().plusDays(10));
-        bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
-        bookingStorage.save(bookingCreated);
-
-        Status status = bookingCreated.getStatus();
-        List<Long> itemIds = new ArrayList<>();
-        itemIds.add(bookingCreated.getItem().getId());
-
-        Booking bookingFound = bookingStorage.findByStatusEqualsAndItemIdInOrderByStartDesc(status, itemIds).getFirst();
-
-        assertEquals(bookingCreated, bookingFound);
-    }
-
-    @Test
-    public void findItemIdByBookingIdTest() {
-        Booking bookingCreated = createBooking();
-        bookingCreated.setStart(LocalDateTime.now().plusDays(10));
-        bookingCreated.setEnd(LocalDateTime.now().plusDays(11));
-        bookingStorage.save(bookingCreated);
-
-        long itemIdCreated = bookingCreated.getItem().getId();
-        long bookingId = bookingCreated.getId();
-
-        long itemIdFound = bookingStorage.findItemIdByBookingId(bookingId);
-
-        assertEquals(itemIdCreated, itemIdFound);
+        assertEquals(bookingCreated.getItem().getOwner(), bookingFound.getItem().getOwner());
+        assertEquals(bookingCreated.getBooker().getId(), bookingFound.getBooker().getId());
+        assertTrue(bookingStorage.findWithItemAndBookerById(-1L).isEmpty());
     }
 
     @Test
@@ -242,11 +169,94 @@ class BookingStorageTests {
         assertEquals(lastBookings.getFirst(), bookingCreated);
     }
 
+    @Test
+    public void findLastAndNextBookingsReturnsOnePerItemTest() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Booking older = createBooking();
+            older.setStart(now.minusDays(10));
+            older.setEnd(now.minusDays(9));
+            bookingStorage.save(older);
+
+            Booking last = new Booking();
+            last.setItem(older.getItem());
+            last.setBooker(older.getBooker());
+            last.setStatus(Status.APPROVED);
+            last.setStart(now.minusDays(2));
+            last.setEnd(now.minusDays(1));
+            bookingStorage.save(last);
+
+            Booking next = new Booking();
+            next.setItem(older.getItem());
+            next.setBooker(older.getBooker());
+            next.setStatus(Status.APPROVED);
+            next.setStart(now.plusDays(1));
+            next.setEnd(now.plusDays(2));
+            bookingStorage.save(next);
+
+            Booking later = new Booking();
+            later.setItem(older.getItem());
+            later.setBooker(older.getBooker());
+            later.setStatus(Status.APPROVED);
+            later.setStart(now.plusDays(5));
+            later.setEnd(now.plusDays(6));
+            bookingStorage.save(later);
+
+            itemIds.add(older.getItem().getId());
+        }
+
+        List<Booking> lastBookings = bookingStorage.findLastBookings(itemIds, now);
+        List<Booking> nextBookings = bookingStorage.findNextBookings(itemIds, now);
+
+        assertEquals(itemIds.size(), lastBookings.size());
+        assertEquals(itemIds.size(), nextBookings.size());
+        for (int i = 0; i < itemIds.size(); i++) {
+            assertTrue(lastBookings.get(i).getEnd().isAfter(now.minusDays(2)));
+            assertTrue(nextBookings.get(i).getStart().isBefore(now.plusDays(2)));
+        }
+    }
+
+    @Test
+    public void findLastAndNextBookingsBreakTiesByIdTest() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking firstLast = createBooking();
+        firstLast.setStart(now.minusDays(2));
+        firstLast.setEnd(now.minusDays(1));
+        bookingStorage.save(firstLast);
+        Booking firstNext = copyOf(firstLast, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+
+        // отклонённые и отменённые бронирования с теми же датами не должны давать лишних строк
+        copyOf(firstLast, now.minusDays(3), now.minusDays(1), Status.REJECTED);
+        copyOf(firstLast, now.minusDays(2), now.minusDays(1), Status.CANCELED);
+        copyOf(firstLast, now.plusDays(1), now.plusDays(3), Status.REJECTED);
+        copyOf(firstLast, now.plusDays(1), now.plusDays(2), Status.CANCELED);
+
+        List<Long> itemIds = List.of(firstLast.getItem().getId());
+        List<Booking> lastBookings = bookingStorage.findLastBookings(itemIds, now);
+        List<Booking> nextBookings = bookingStorage.findNextBookings(itemIds, now);
+
+        assertEquals(1, lastBookings.size());
+        assertEquals(firstLast.getId(), lastBookings.getFirst().getId());
+        assertEquals(1, nextBookings.size());
+        assertEquals(firstNext.getId(), nextBookings.getFirst().getId());
+    }
+
+    private Booking copyOf(Booking booking, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking copy = new Booking();
+        copy.setItem(booking.getItem());
+        copy.setBooker(booking.getBooker());
+        copy.setStatus(status);
+        copy.setStart(start);
+        copy.setEnd(end);
+        return bookingStorage.save(copy);
+    }
+
 
     private Booking createBooking() {
         User user = new User();
         user.setName("lojilo");
-        user.setEmail("gghg@ddad.test");
+        user.setEmail("gghg" + System.nanoTime() + "@ddad.test");
         userStorage.save(user);
 
         Item item = new Item();
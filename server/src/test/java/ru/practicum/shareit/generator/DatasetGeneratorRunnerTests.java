@@ -0,0 +1,41 @@
+package ru.practicum.shareit.generator;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemSuggestIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@ActiveProfiles({"test", DatasetGeneratorRunner.PROFILE})
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-generate",
+        "shareit.generator.users=50",
+        "shareit.generator.items=500",
+        "shareit.generator.power-owners=3",
+        "shareit.generator.power-owner-items=100",
+        "shareit.generator.requests=20",
+        "shareit.generator.bookings=2000",
+        "shareit.generator.batch-size=1000"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class DatasetGeneratorRunnerTests {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSuggestIndex suggestIndex;
+    private final BookingIntervalIndex intervalIndex;
+
+    @Test
+    public void generateProfileFillsDatabaseWithoutBuildingIndexesTest() {
+        assertEquals(2000, jdbcTemplate.queryForObject("select count(*) from bookings", Integer.class));
+        assertFalse(searchIndex.isReady());
+        assertFalse(suggestIndex.isReady());
+        assertFalse(intervalIndex.isReady());
+    }
+}
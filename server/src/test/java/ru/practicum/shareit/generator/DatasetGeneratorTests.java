@@ -0,0 +1,83 @@
+package ru.practicum.shareit.generator;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class DatasetGeneratorTests {
+
+    private final DatasetGenerator generator;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void generateFillsAllTablesTest() {
+        DatasetSummary summary = generator.generate(smallSettings());
+
+        assertEquals(summary.getUsers(), count("users"));
+        assertEquals(summary.getRequests(), count("requests"));
+        assertEquals(summary.getItems(), count("items"));
+        assertEquals(summary.getBookings(), count("bookings"));
+        assertEquals(summary.getComments(), count("comments"));
+        assertTrue(summary.getComments() > 0);
+    }
+
+    @Test
+    public void powerOwnersGetConfiguredItemCountTest() {
+        generator.generate(smallSettings());
+
+        List<Integer> topOwners = jdbcTemplate.queryForList(
+                "select count(*) from items group by owner_id order by count(*) desc limit 3", Integer.class);
+
+        assertEquals(3, topOwners.size());
+        topOwners.forEach(count -> assertTrue(count >= 100));
+    }
+
+    @Test
+    public void bookingsOfSameItemDoNotOverlapTest() {
+        generator.generate(smallSettings());
+
+        Integer overlapping = jdbcTemplate.queryForObject("select count(*) from bookings a join bookings b "
+                + "on a.item_id = b.item_id and a.id < b.id "
+                + "and a.start_date < b.end_date and b.start_date < a.end_date", Integer.class);
+
+        assertEquals(0, overlapping);
+    }
+
+    @Test
+    public void bookingPopularityIsSkewedTest() {
+        generator.generate(smallSettings());
+
+        Integer top = jdbcTemplate.queryForObject(
+                "select count(*) from bookings group by item_id order by count(*) desc limit 1", Integer.class);
+
+        // при равномерном распределении на вещь пришлось бы ~10 бронирований
+        assertTrue(top > 100);
+    }
+
+    private GeneratorSettings smallSettings() {
+        GeneratorSettings settings = new GeneratorSettings();
+        settings.setUsers(50);
+        settings.setItems(500);
+        settings.setPowerOwners(3);
+        settings.setPowerOwnerItems(100);
+        settings.setRequests(20);
+        settings.setBookings(5_000);
+        settings.setBatchSize(1000);
+        return settings;
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+}
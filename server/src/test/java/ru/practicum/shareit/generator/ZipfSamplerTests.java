@@ -0,0 +1,59 @@
+package ru.practicum.shareit.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ZipfSamplerTests {
+
+    @Test
+    public void probabilitiesSumToOneAndDecreaseTest() {
+        ZipfSampler sampler = new ZipfSampler(1000, 1.1);
+
+        double sum = 0;
+        for (int rank = 1; rank <= 1000; rank++) {
+            sum += sampler.probability(rank);
+            if (rank > 1) {
+                assertTrue(sampler.probability(rank) < sampler.probability(rank - 1));
+            }
+        }
+        assertEquals(1.0, sum, 1e-9);
+    }
+
+    @Test
+    public void sampleFollowsDistributionTest() {
+        ZipfSampler sampler = new ZipfSampler(1000, 1.1);
+        Random random = new Random(7);
+        int samples = 200_000;
+        int[] counts = new int[1001];
+
+        for (int i = 0; i < samples; i++) {
+            int rank = sampler.sample(random);
+            assertTrue(rank >= 1 && rank <= 1000);
+            counts[rank]++;
+        }
+
+        assertEquals(sampler.probability(1), (double) counts[1] / samples, 0.01);
+        assertEquals(sampler.probability(10), (double) counts[10] / samples, 0.005);
+    }
+
+    @Test
+    public void sampleIsDeterministicForSeedTest() {
+        ZipfSampler sampler = new ZipfSampler(100, 1.0);
+        Random first = new Random(1);
+        Random second = new Random(1);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(sampler.sample(first), sampler.sample(second));
+        }
+    }
+
+    @Test
+    public void emptyRangeIsRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(0, 1.0));
+    }
+}
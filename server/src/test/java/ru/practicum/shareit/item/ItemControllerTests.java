@@ -6,21 +6,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.dto.comment.CommentCursor;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.dto.comment.CreateCommentDto;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -132,6 +139,47 @@ public class ItemControllerTests {
         verify(service, times(1)).getItemById(anyLong());
     }
 
+    @Test
+    public void getItemByIdAnswersNotModifiedForMatchingEtagTest() throws Exception {
+        ItemDtoWithBookings response = mapper.convertValue(createItem(), ItemDtoWithBookings.class);
+        response.setId(1L);
+
+        when(service.getItemById(anyLong()))
+                .thenReturn(response);
+
+        String etag = mvc.perform(get("/items/1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/items/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        response.setName("Новое название");
+        mvc.perform(get("/items/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", Matchers.is("Новое название")));
+    }
+
+    @Test
+    public void getAllItemsOfUserHasNoEtagTest() throws Exception {
+        when(service.getAllItemsOfUser(anyLong()))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
     @Test
     public void getAllItemsOfUserTest() throws Exception {
         CreateItemDto request = createItem();
@@ -155,13 +203,34 @@ public class ItemControllerTests {
         verify(service, times(1)).getAllItemsOfUser(anyLong());
     }
 
+    @Test
+    public void getAvailabilityTest() throws Exception {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 10);
+        List<AvailabilitySlotDto> response = List.of(new AvailabilitySlotDto(from, to, true));
+
+        when(service.getAvailability(1L, from, to))
+                .thenReturn(response);
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01")
+                        .param("to", "2030-01-10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].from", Matchers.is("2030-01-01")))
+                .andExpect(jsonPath("$[0].to", Matchers.is("2030-01-10")))
+                .andExpect(jsonPath("$[0].free", Matchers.is(true)));
+
+        verify(service, times(1)).getAvailability(1L, from, to);
+    }
+
     @Test
     public void searchItemTest() throws Exception {
         CreateItemDto request = createItem();
         ItemDto response = mapper.convertValue(request, ItemDto.class);
         response.setId(1L);
 
-        when(service.searchItem(anyString()))
+        when(service.searchItem("item", 0, 20))
                 .thenReturn(List.of(response));
 
         mvc.perform(get("/items/search")
@@ -175,7 +244,74 @@ public class ItemControllerTests {
                 .andExpect(jsonPath("$[0].description", Matchers.is(response.getDescription())))
                 .andExpect(jsonPath("$[0].available", Matchers.is(response.getAvailable()), Boolean.class));
 
-        verify(service, times(1)).searchItem(anyString());
+        verify(service, times(1)).searchItem("item", 0, 20);
+    }
+
+    @Test
+    public void searchItemWithInvalidPageTest() throws Exception {
+        mvc.perform(get("/items/search")
+                        .param("text", "item")
+                        .param("size", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(get("/items/search")
+                        .param("text", "item")
+                        .param("from", "-1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void suggestItemNamesTest() throws Exception {
+        when(service.suggestItemNames("дре", 10))
+                .thenReturn(List.of("Дрель", "Дрезина"));
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", Matchers.is("Дрель")))
+                .andExpect(jsonPath("$[1]", Matchers.is("Дрезина")));
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .param("size", "11")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(service, times(1)).suggestItemNames("дре", 10);
+    }
+
+    @Test
+    public void getItemCommentsTest() throws Exception {
+        CommentDto first = new CommentDto();
+        first.setId(9L);
+        first.setText("new");
+        first.setCreated(LocalDateTime.of(2030, 1, 2, 10, 0));
+        CommentDto second = new CommentDto();
+        second.setId(4L);
+        second.setText("old");
+        second.setCreated(LocalDateTime.of(2030, 1, 1, 10, 0));
+
+        when(service.getItemComments(1L, null, 2))
+                .thenReturn(List.of(first, second));
+
+        mvc.perform(get("/items/1/comments")
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", Matchers.is(9L), Long.class))
+                .andExpect(jsonPath("$[1].id", Matchers.is(4L), Long.class))
+                .andExpect(header().string("X-Next-Cursor", CommentCursor.of(second).encode()));
+
+        mvc.perform(get("/items/1/comments")
+                        .param("cursor", "???")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
     }
 
     private CreateItemDto createItem() {
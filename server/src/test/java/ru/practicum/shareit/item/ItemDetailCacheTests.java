@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.service.ItemDetailCache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemDetailCacheTests {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ItemDetailCache cache = new ItemDetailCache(registry, 100, Duration.ofMinutes(5));
+
+    @Test
+    public void repeatedGetIsServedFromCacheTest() {
+        AtomicInteger loads = new AtomicInteger();
+
+        ItemDtoWithBookings first = cache.get(1L, itemId -> {
+            loads.incrementAndGet();
+            return createDetail(itemId, "Дрель");
+        });
+        ItemDtoWithBookings second = cache.get(1L, itemId -> {
+            loads.incrementAndGet();
+            return createDetail(itemId, "Дрель");
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    public void invalidateDoesNotWaitForRunningLoadTest() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ItemDtoWithBookings> load = CompletableFuture.supplyAsync(() -> cache.get(1L, itemId -> {
+            loading.countDown();
+            await(release);
+            return createDetail(itemId, "Старое название");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // загрузка идёт вне вычисления кэша, поэтому сброс той же вещи не ждёт её завершения
+        CompletableFuture.runAsync(() -> cache.invalidate(1L)).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertEquals("Старое название", load.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("Новое название", cache.get(1L, itemId -> createDetail(itemId, "Новое название")).getName());
+    }
+
+    @Test
+    public void loaderMayInvalidateSameItemTest() {
+        ItemDtoWithBookings loaded = cache.get(1L, itemId -> {
+            cache.invalidate(itemId);
+            return createDetail(itemId, "Дрель");
+        });
+
+        assertEquals("Дрель", loaded.getName());
+        assertEquals("Велосипед", cache.get(1L, itemId -> createDetail(itemId, "Велосипед")).getName());
+    }
+
+    private double gets(String result) {
+        return registry.get("cache.gets").tag("cache", "itemDetail").tag("result", result).functionCounter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ItemDtoWithBookings createDetail(long id, String name) {
+        ItemDtoWithBookings detail = new ItemDtoWithBookings();
+        detail.setId(id);
+        detail.setName(name);
+        detail.setAvailable(true);
+        return detail;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchCacheTests {
+
+    @Mock
+    ItemStorage itemStorageMock;
+    private ItemSearchIndex index;
+    private SimpleMeterRegistry registry;
+    private ItemSearchCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        index = spy(new ItemSearchIndex(itemStorageMock));
+        registry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(index, registry, 100, Duration.ofMinutes(1));
+        when(itemStorageMock.findByAvailableTrue())
+                .thenReturn(List.of());
+        index.rebuild();
+        index.update(createItem(1L, "Дрель", "Ударная", true));
+        index.update(createItem(2L, "Велосипед", "Горный", true));
+    }
+
+    @Test
+    public void repeatedSearchIsServedFromCacheTest() {
+        assertEquals(List.of(1L), ids(cache.search("дрель", 0, 20)));
+        assertEquals(List.of(1L), ids(cache.search("ДРЕЛЬ", 0, 20)));
+        assertEquals(List.of(1L), ids(cache.search("Дрель", 0, 20)));
+
+        verify(index, times(1)).search("дрель", 0, 20);
+        assertEquals(2.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    public void pagesAreCachedSeparatelyTest() {
+        cache.search("дрель", 0, 20);
+        cache.search("дрель", 20, 20);
+
+        assertEquals(2.0, gets("miss"));
+    }
+
+    @Test
+    public void changedItemInvalidatesOnlyMatchingTermsTest() {
+        cache.search("дрель", 0, 20);
+        cache.search("велосипед", 0, 20);
+
+        index.update(createItem(3L, "Дрель аккумуляторная", "Новая", true));
+
+        assertEquals(List.of(3L, 1L), ids(cache.search("дрель", 0, 20)));
+        assertEquals(List.of(2L), ids(cache.search("велосипед", 0, 20)));
+        assertEquals(1.0, gets("hit"));
+        assertEquals(3.0, gets("miss"));
+    }
+
+    @Test
+    public void rebuildInvalidatesAllEntriesTest() {
+        cache.search("дрель", 0, 20);
+        when(itemStorageMock.findByAvailableTrue())
+                .thenReturn(List.of(createItem(1L, "Дрель", "Ударная", true),
+                        createItem(3L, "Дрель сетевая", "", true)));
+
+        index.rebuild();
+
+        assertEquals(List.of(3L, 1L), ids(cache.search("дрель", 0, 20)));
+        assertEquals(2.0, gets("miss"));
+    }
+
+    @Test
+    public void resultsAreNotCachedUntilIndexIsReadyTest() {
+        ItemSearchIndex notReady = spy(new ItemSearchIndex(itemStorageMock));
+        ItemSearchCache notReadyCache = new ItemSearchCache(notReady, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(1));
+
+        notReadyCache.search("дрель", 0, 20);
+        notReadyCache.search("дрель", 0, 20);
+
+        verify(notReady, times(2)).search("дрель", 0, 20);
+    }
+
+    @Test
+    public void itemLeavingResultsInvalidatesEntryTest() {
+        cache.search("горный", 0, 20);
+
+        index.update(createItem(2L, "Велосипед", "Горный", false));
+
+        assertEquals(List.of(), ids(cache.search("горный", 0, 20)));
+        assertEquals(2.0, gets("miss"));
+    }
+
+    @Test
+    public void renamedItemInvalidatesOldAndNewTermsTest() {
+        cache.search("велосипед", 0, 20);
+        cache.search("самокат", 0, 20);
+
+        index.update(createItem(2L, "Самокат", "Городской", true));
+
+        assertEquals(List.of(), ids(cache.search("велосипед", 0, 20)));
+        assertEquals(List.of(2L), ids(cache.search("самокат", 0, 20)));
+        assertEquals(4.0, gets("miss"));
+    }
+
+    private double gets(String result) {
+        return registry.get("cache.gets").tag("cache", "itemSearch").tag("result", result).functionCounter().count();
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+
+    private Item createItem(long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setOwner(1L);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
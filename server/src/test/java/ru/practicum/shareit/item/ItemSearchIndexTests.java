@@ -0,0 +1,198 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTests {
+
+    @Mock
+    ItemStorage itemStorageMock;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ItemSearchIndex(itemStorageMock);
+    }
+
+    @Test
+    public void rebuildAndSearchIgnoresCaseTest() {
+        when(itemStorageMock.findByAvailableTrue())
+                .thenReturn(List.of(createItem(1L, "Дрель Bosch", "Ударная дрель", true),
+                        createItem(2L, "Лестница", "Алюминиевая, 3 метра", true)));
+
+        index.rebuild();
+
+        assertEquals(List.of(1L), ids(search("ДРЕЛЬ")));
+        assertEquals(List.of(1L), ids(search("bosch")));
+        assertEquals(List.of(2L), ids(search("алюмин")));
+        assertEquals(List.of(), ids(search("перфоратор")));
+    }
+
+    @Test
+    public void updateDuringRebuildIsAppliedAfterSnapshotTest() throws Exception {
+        Item stale = createItem(1L, "Дрель", "", true);
+        Item renamed = createItem(1L, "Перфоратор", "", true);
+        Thread writer = new Thread(() -> index.update(renamed));
+        // изменение фиксируется, пока построение читает устаревший снимок
+        when(itemStorageMock.findByAvailableTrue()).thenAnswer(invocation -> {
+            writer.start();
+            writer.join(200);
+            assertTrue(writer.isAlive());
+            return List.of(stale);
+        });
+
+        assertFalse(index.isReady());
+        index.rebuild();
+        writer.join();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L), ids(search("перфоратор")));
+        assertEquals(List.of(), ids(search("дрель")));
+    }
+
+    @Test
+    public void shortQueryMatchesSubstringTest() {
+        index.update(createItem(1L, "Пила", "Ножовка", true));
+        index.update(createItem(2L, "Рюкзак", "60 литров", true));
+
+        assertEquals(List.of(1L), ids(search("ил")));
+        assertEquals(List.of(2L), ids(search("6")));
+        assertEquals(List.of(2L, 1L), ids(search("")));
+    }
+
+    @Test
+    public void trigramsOfQueryMustFormSubstringTest() {
+        index.update(createItem(1L, "abcd xbcy", "", true));
+
+        assertEquals(List.of(), ids(search("abcy")));
+        assertEquals(List.of(1L), ids(search("xbcy")));
+    }
+
+    @Test
+    public void updateFollowsNameAndAvailabilityTest() {
+        Item item = createItem(1L, "Велосипед", "Горный", true);
+        index.update(item);
+        assertEquals(List.of(1L), ids(search("велосипед")));
+
+        item.setName("Самокат");
+        index.update(item);
+        assertEquals(List.of(), ids(search("велосипед")));
+        assertEquals(List.of(1L), ids(search("самокат")));
+
+        item.setAvailable(false);
+        index.update(item);
+        assertEquals(List.of(), ids(search("самокат")));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void updateInsideTransactionAppliedAfterCommitTest() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.update(createItem(1L, "Палатка", "Двухместная", true));
+            assertEquals(List.of(), ids(search("палатка")));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1L), ids(search("палатка")));
+    }
+
+    @Test
+    public void searchMatchesLinearScanTest() {
+        String[] words = {"дрель", "пила", "палатка", "лыжи", "штатив", "гитара"};
+        Random random = new Random(3);
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            Item item = createItem(id, words[random.nextInt(words.length)] + " " + id,
+                    words[random.nextInt(words.length)], random.nextBoolean());
+            items.add(item);
+            index.update(item);
+        }
+
+        for (String query : List.of("дрель", "ла", "атив 1", "пила 2", "и", "тара")) {
+            List<Long> expected = items.stream()
+                    .filter(Item::getAvailable)
+                    .filter(i -> i.getName().contains(query) || i.getDescription().contains(query))
+                    .map(Item::getId)
+                    .sorted()
+                    .toList();
+            assertEquals(expected, ids(search(query)).stream().sorted().toList(), query);
+        }
+        assertTrue(index.size() < items.size());
+    }
+
+    @Test
+    public void nameMatchesRankAboveDescriptionMatchesTest() {
+        index.update(createItem(1L, "Палатка", "Для похода, дрель не нужна", true));
+        index.update(createItem(2L, "Дрель", "Аккумуляторная", true));
+        index.update(createItem(3L, "Дрель-шуруповёрт", "Дрель и шуруповёрт в одном", true));
+        index.update(createItem(4L, "Дрель ударная", "Сетевая", true));
+
+        // 3: вхождение в названии и описании; 4 и 2: только в названии, новее выше; 1: только описание
+        assertEquals(List.of(3L, 4L, 2L, 1L), ids(search("дрель")));
+    }
+
+    @Test
+    public void nameMatchOutranksAnyNumberOfDescriptionMatchesTest() {
+        index.update(createItem(1L, "Дрель", "Сетевая", true));
+        index.update(createItem(2L, "Набор", "Дрель, дрель, дрель и ещё дрель", true));
+
+        assertEquals(List.of(1L, 2L), ids(search("дрель")));
+    }
+
+    @Test
+    public void pagesFollowRankingTest() {
+        for (long id = 1; id <= 50; id++) {
+            index.update(createItem(id, "Лыжи " + id, id % 2 == 0 ? "лыжи и палки" : "беговые", true));
+        }
+
+        List<Long> all = ids(index.search("лыжи", 0, 50));
+        assertEquals(50, all.size());
+        assertEquals(all.subList(0, 10), ids(index.search("лыжи", 0, 10)));
+        assertEquals(all.subList(10, 20), ids(index.search("лыжи", 10, 10)));
+        assertEquals(all.subList(45, 50), ids(index.search("лыжи", 45, 10)));
+        assertEquals(List.of(), ids(index.search("лыжи", 50, 10)));
+        // сначала вещи с вхождением и в названии, и в описании
+        assertTrue(all.subList(0, 25).stream().allMatch(id -> id % 2 == 0));
+    }
+
+    private List<Item> search(String text) {
+        return index.search(text, 0, Integer.MAX_VALUE);
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+
+    private Item createItem(long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setOwner(1L);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
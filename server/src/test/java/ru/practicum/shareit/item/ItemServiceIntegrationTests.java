@@ -1,26 +1,46 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.item.dao.ItemStorage;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.dto.comment.CommentCursor;
+import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.dto.comment.CreateCommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemSuggestIndex;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -34,6 +54,12 @@ public class ItemServiceIntegrationTests {
     private final ItemService itemService;
     private final UserService userService;
     private final BookingService bookingService;
+    private final ItemStorage itemStorage;
+    private final EntityManager entityManager;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSuggestIndex suggestIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
 
     @Test
     public void updateItemTest() {
@@ -108,6 +134,138 @@ public class ItemServiceIntegrationTests {
         assertNotNull(dtos);
 
         assertThat(dtos.getFirst().getComments().getFirst().getText(), equalTo("super"));
+        assertEquals(1, dtos.getFirst().getCommentCount());
+        assertNotNull(dtos.getFirst().getLastCommentAt());
+    }
+
+    @Test
+    public void getItemByIdShowsNewCommentTest() {
+        UserDto user = userService.createUser(createUser());
+        ItemDto item = itemService.addNewItem(createItemRequest("Knedlik"), user.getId());
+        bookingService.addNewBooking(createLastBooking(item.getId()), user.getId());
+
+        assertTrue(itemService.getItemById(item.getId()).getComments().isEmpty());
+
+        itemService.addNewComment(createComment("super"), item.getId(), user.getId());
+
+        assertThat(itemService.getItemById(item.getId()).getComments().getFirst().getText(), equalTo("super"));
+    }
+
+    @Test
+    public void commentsWithAuthorsLoadInOneStatementTest() {
+        UserDto owner = userService.createUser(createUser());
+        ItemDto first = itemService.addNewItem(createItemRequest("Knedlik"), owner.getId());
+        ItemDto second = itemService.addNewItem(createItemRequest("Palačinka"), owner.getId());
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < 300; i++) {
+            User author = new User();
+            author.setName("Author " + i);
+            author.setEmail("author" + i + "@kuku.test");
+            entityManager.persist(author);
+
+            Comment comment = new Comment();
+            comment.setText("comment " + i);
+            comment.setAuthor(author);
+            comment.setItem(entityManager.getReference(Item.class, i % 2 == 0 ? first.getId() : second.getId()));
+            comment.setCreated(start.plusMinutes(i));
+            entityManager.persist(comment);
+            itemStorage.addComment(comment.getItem().getId(), comment.getCreated());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            ItemDtoWithBookings detail = itemService.getItemById(first.getId());
+            // вещь вместе с числом комментариев и последние комментарии с авторами
+            assertEquals(2, statistics.getPrepareStatementCount());
+            assertEquals(ItemServiceImpl.RECENT_COMMENTS, detail.getComments().size());
+            assertEquals(150, detail.getCommentCount());
+            assertThat(detail.getComments().getFirst().getAuthorName(), equalTo("Author 298"));
+
+            entityManager.clear();
+            statistics.clear();
+            List<ItemDtoWithBookings> items = itemService.getAllItemsOfUser(owner.getId());
+            // вещи, последние и следующие бронирования, id последних комментариев, комментарии с авторами
+            assertEquals(5, statistics.getPrepareStatementCount());
+            assertEquals(2 * ItemServiceImpl.RECENT_COMMENTS,
+                    items.stream().mapToInt(dto -> dto.getComments().size()).sum());
+            assertEquals(300, items.stream().mapToLong(ItemDtoWithBookings::getCommentCount).sum());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    public void getItemCommentsPagesByCursorTest() {
+        UserDto owner = userService.createUser(createUser());
+        ItemDto item = itemService.addNewItem(createItemRequest("Trdelník"), owner.getId());
+        User author = new User();
+        author.setName("Author");
+        author.setEmail("author@kuku.test");
+        entityManager.persist(author);
+        LocalDateTime created = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            Comment comment = new Comment();
+            comment.setText("comment " + i);
+            comment.setAuthor(author);
+            comment.setItem(entityManager.getReference(Item.class, item.getId()));
+            // у пар комментариев одинаковое время, порядок между ними задаёт id
+            comment.setCreated(created.plusMinutes(i / 2));
+            entityManager.persist(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> texts = new ArrayList<>();
+        CommentCursor cursor = null;
+        for (int pages = 0; pages < 5; pages++) {
+            List<CommentDto> page = itemService.getItemComments(item.getId(), cursor, 2);
+            page.forEach(comment -> texts.add(comment.getText()));
+            if (page.size() < 2) {
+                break;
+            }
+            cursor = CommentCursor.decode(CommentCursor.of(page.getLast()).encode());
+        }
+
+        assertEquals(List.of("comment 4", "comment 3", "comment 2", "comment 1", "comment 0"), texts);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void concurrentRenamesLeaveSuggestionsMatchingDatabaseTest() throws Exception {
+        CreateUserDto userRequest = createUser();
+        userRequest.setEmail("renames@kuku.test");
+        UserDto owner = userService.createUser(userRequest);
+        ItemDto item = itemService.addNewItem(createItemRequest("Zebra probe"), owner.getId());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> renames = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                UpdateItemDto request = new UpdateItemDto();
+                request.setName("Zebra probe " + i);
+                // индекс подсказок меняется после фиксации каждой транзакции
+                renames.add(executor.submit(() -> transactionTemplate.execute(
+                        status -> itemService.updateItem(request, item.getId(), owner.getId()))));
+            }
+            for (Future<?> rename : renames) {
+                rename.get();
+            }
+
+            String stored = jdbcTemplate.queryForObject("select name from items where id = ?",
+                    String.class, item.getId());
+            assertEquals(List.of(stored), suggestIndex.suggest("zebra probe", ItemSuggestIndex.MAX_SUGGESTIONS));
+        } finally {
+            executor.shutdown();
+            jdbcTemplate.update("delete from items where id = ?", item.getId());
+            jdbcTemplate.update("delete from users where id = ?", owner.getId());
+            searchIndex.rebuild();
+            suggestIndex.rebuild();
+        }
     }
 
     private CreateItemDto createItemRequest(String name) {
@@ -1,39 +1,66 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.dao.BookingInterval;
 import ru.practicum.shareit.booking.dao.BookingStorage;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.ItemLocks;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.ForbiddenException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dao.CommentStorage;
 import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.dto.comment.CommentCursor;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.dto.comment.CreateCommentDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.CommentMapperImpl;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemDetailCache;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemSuggestIndex;
 import ru.practicum.shareit.user.dao.UserStorage;
 import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,22 +74,41 @@ public class ItemServiceTests {
     BookingStorage bookingStorageMock;
     @Mock
     CommentStorage commentStorageMock;
+    @Mock
+    BookingIntervalIndex intervalIndexMock;
+    @Mock
+    ItemSearchIndex searchIndexMock;
+    @Mock
+    ItemSuggestIndex suggestIndexMock;
+    @Mock
+    ItemSearchCache searchCacheMock;
     private ItemService service;
-    private final ModelMapper mapper = new ModelMapper();
+    private final CommentMapper commentMapper = new CommentMapperImpl();
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
 
     @BeforeEach
     public void setUp() {
-        service = new ItemServiceImpl(mapper,
+        service = new ItemServiceImpl(new ItemMapperImpl(),
+                new CommentMapperImpl(),
+                new BookingMapperImpl(new ItemMapperImpl(), new UserMapperImpl()),
                 itemStorageMock,
                 userStorageMock,
                 bookingStorageMock,
-                commentStorageMock);
+                commentStorageMock,
+                intervalIndexMock,
+                searchIndexMock,
+                suggestIndexMock,
+                searchCacheMock,
+                new ItemDetailCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)),
+                new ItemLocks(4));
     }
 
     @Test
     public void addNewItemTest() {
         CreateItemDto request = createItem("Blue Apple");
-        Item item = mapper.map(request, Item.class);
+        Item item = itemMapper.toItem(request);
+        item.setId(1L);
 
         when(userStorageMock.existsById(anyLong()))
                 .thenReturn(true);
@@ -71,12 +117,16 @@ public class ItemServiceTests {
 
         ItemDto dto = service.addNewItem(request, 1L);
 
-        assertThat(dto, equalTo(mapper.map(item, ItemDto.class)));
+        assertThat(dto, equalTo(itemMapper.toItemDto(item)));
 
         verify(userStorageMock, times(1))
                 .existsById(anyLong());
         verify(itemStorageMock, times(1))
                 .save(any(Item.class));
+        verify(searchIndexMock, times(1))
+                .update(item);
+        verify(suggestIndexMock, times(1))
+                .update(item);
         verifyNoMoreInteractions(userStorageMock, itemStorageMock);
     }
 
@@ -100,11 +150,11 @@ public class ItemServiceTests {
     @Test
     public void addNewCommentTest() {
         CreateCommentDto request = createComment("Good one");
-        Comment comment = mapper.map(request, Comment.class);
+        Comment comment = commentMapper.toComment(request);
 
-        Item item = mapper.map(createItem("Blue Apple"), Item.class);
+        Item item = itemMapper.toItem(createItem("Blue Apple"));
         comment.setItem(item);
-        User user = mapper.map(createUser("j@df.test"), User.class);
+        User user = userMapper.toUser(createUser("j@df.test"));
         comment.setAuthor(user);
 
         when(bookingStorageMock.existsItemIdByBookerId(anyLong()))
@@ -124,10 +174,14 @@ public class ItemServiceTests {
 
         CommentDto dto = service.addNewComment(request, 1L, 1L);
 
-        assertThat(dto, equalTo(mapper.map(comment, CommentDto.class)));
+        assertThat(dto, equalTo(commentMapper.toCommentDto(comment)));
 
         verify(commentStorageMock, times(1))
                 .save(any(Comment.class));
+        verify(itemStorageMock, times(1))
+                .addComment(eq(1L), any(LocalDateTime.class));
+        verify(itemStorageMock, times(1))
+                .refresh(any(Item.class));
         verifyNoMoreInteractions(bookingStorageMock, userStorageMock, itemStorageMock, commentStorageMock);
     }
 
@@ -159,7 +213,7 @@ public class ItemServiceTests {
     public void updateItemWithNonexistentUserIdTest() {
         UpdateItemDto request = new UpdateItemDto();
         request.setAvailable(false);
-        Item item = mapper.map(createItem("Blue Apple"), Item.class);
+        Item item = itemMapper.toItem(createItem("Blue Apple"));
         item.setOwner(100000L);
 
         when(itemStorageMock.existsById(anyLong()))
@@ -170,16 +224,62 @@ public class ItemServiceTests {
         assertThrows(ForbiddenException.class, () -> service.updateItem(request, 100000L, 1L));
     }
 
+    @Test
+    public void concurrentUpdatesReachIndexesInDatabaseOrderTest() throws Exception {
+        Item item = itemMapper.toItem(createItem("Blue Apple"));
+        item.setId(1L);
+        item.setOwner(1L);
+        List<String> savedNames = Collections.synchronizedList(new ArrayList<>());
+        List<String> searchNames = Collections.synchronizedList(new ArrayList<>());
+        List<String> suggestNames = Collections.synchronizedList(new ArrayList<>());
+
+        when(itemStorageMock.existsById(1L))
+                .thenReturn(true);
+        when(itemStorageMock.getReferenceById(1L))
+                .thenReturn(item);
+        when(itemStorageMock.save(any(Item.class))).thenAnswer(invocation -> {
+            Item saved = itemMapper.toItem(createItem(invocation.<Item>getArgument(0).getName()));
+            saved.setId(1L);
+            saved.setOwner(1L);
+            savedNames.add(saved.getName());
+            // без блокировки второй поток успевает записать и проиндексировать своё название раньше
+            Thread.sleep(1);
+            return saved;
+        });
+        doAnswer(invocation -> searchNames.add(invocation.<Item>getArgument(0).getName()))
+                .when(searchIndexMock).update(any(Item.class));
+        doAnswer(invocation -> suggestNames.add(invocation.<Item>getArgument(0).getName()))
+                .when(suggestIndexMock).update(any(Item.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                UpdateItemDto request = new UpdateItemDto();
+                request.setName("Apple " + i);
+                futures.add(executor.submit(() -> service.updateItem(request, 1L, 1L)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(savedNames, searchNames);
+        assertEquals(savedNames, suggestNames);
+    }
+
     @Test
     public void getItemByIdWithNoCommentsTest() {
-        Item item = mapper.map(createItem("Blue Apple"), Item.class);
+        Item item = itemMapper.toItem(createItem("Blue Apple"));
 
         when(itemStorageMock.findById(1L))
                 .thenReturn(Optional.of(item));
 
         ItemDtoWithBookings dto = service.getItemById(1L);
 
-        assertThat(dto, equalTo(mapper.map(item, ItemDtoWithBookings.class)));
+        assertThat(dto, equalTo(itemMapper.toItemDtoWithBookings(item)));
 
         verify(itemStorageMock, times(1))
                 .findById(anyLong());
@@ -188,24 +288,102 @@ public class ItemServiceTests {
 
     @Test
     public void getItemByIdWithCommentsTest() {
-        Item item = mapper.map(createItem("Blue Apple"), Item.class);
+        Item item = itemMapper.toItem(createItem("Blue Apple"));
+        item.setCommentCount(2);
 
         when(itemStorageMock.findById(1L))
                 .thenReturn(Optional.of(item));
-        when(commentStorageMock.findByItemId(1L))
+        when(commentStorageMock.findByItemIdOrderByCreatedDescIdDesc(1L, Limit.of(ItemServiceImpl.RECENT_COMMENTS)))
                 .thenReturn(List.of(new Comment(), new Comment()));
 
         ItemDtoWithBookings dto = service.getItemById(1L);
 
         assertFalse(dto.getComments().isEmpty());
+        assertEquals(2, dto.getCommentCount());
 
         verify(itemStorageMock, atLeast(1))
                 .findById(anyLong());
         verify(commentStorageMock, atLeast(1))
-                .findByItemId(anyLong());
+                .findByItemIdOrderByCreatedDescIdDesc(anyLong(), any(Limit.class));
         verifyNoMoreInteractions(itemStorageMock, commentStorageMock);
     }
 
+    @Test
+    public void getItemByIdWithLongCommentHistoryTest() {
+        Item item = itemMapper.toItem(createItem("Blue Apple"));
+        item.setCommentCount(250);
+        List<Comment> recent = new ArrayList<>();
+        for (int i = 0; i < ItemServiceImpl.RECENT_COMMENTS; i++) {
+            recent.add(new Comment());
+        }
+
+        when(itemStorageMock.findById(1L))
+                .thenReturn(Optional.of(item));
+        when(commentStorageMock.findByItemIdOrderByCreatedDescIdDesc(1L, Limit.of(ItemServiceImpl.RECENT_COMMENTS)))
+                .thenReturn(recent);
+
+        ItemDtoWithBookings dto = service.getItemById(1L);
+
+        assertEquals(ItemServiceImpl.RECENT_COMMENTS, dto.getComments().size());
+        assertEquals(250, dto.getCommentCount());
+    }
+
+    @Test
+    public void getItemCommentsTest() {
+        Comment comment = new Comment();
+        comment.setId(5L);
+        comment.setText("Good one");
+        CommentCursor cursor = new CommentCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 7L);
+
+        when(itemStorageMock.existsById(1L))
+                .thenReturn(true);
+        when(commentStorageMock.findByItemIdOrderByCreatedDescIdDesc(1L, Limit.of(20)))
+                .thenReturn(List.of(comment));
+        when(commentStorageMock.findByItemIdBefore(1L, cursor.getCreated(), 7L, Limit.of(20)))
+                .thenReturn(List.of());
+
+        assertEquals(5L, service.getItemComments(1L, null, 20).getFirst().getId());
+        assertTrue(service.getItemComments(1L, cursor, 20).isEmpty());
+    }
+
+    @Test
+    public void getCommentsOfNonexistentItemTest() {
+        when(itemStorageMock.existsById(1L))
+                .thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> service.getItemComments(1L, null, 20));
+        verifyNoInteractions(commentStorageMock);
+    }
+
+    @Test
+    public void getItemByIdIsCachedUntilUpdateTest() {
+        Item item = itemMapper.toItem(createItem("Blue Apple"));
+        item.setId(1L);
+        item.setOwner(1L);
+
+        when(itemStorageMock.findById(1L))
+                .thenReturn(Optional.of(item));
+
+        service.getItemById(1L);
+        service.getItemById(1L);
+        verify(itemStorageMock, times(1))
+                .findById(1L);
+
+        UpdateItemDto request = new UpdateItemDto();
+        request.setName("Green Apple");
+        when(itemStorageMock.existsById(1L))
+                .thenReturn(true);
+        when(itemStorageMock.getReferenceById(1L))
+                .thenReturn(item);
+        when(itemStorageMock.save(item))
+                .thenReturn(item);
+        service.updateItem(request, 1L, 1L);
+
+        assertThat(service.getItemById(1L).getName(), equalTo("Green Apple"));
+        verify(itemStorageMock, times(2))
+                .findById(1L);
+    }
+
     @Test
     public void getItemByIdWithNonexistentItemTest() {
         when(itemStorageMock.findById(anyLong()))
@@ -218,6 +396,34 @@ public class ItemServiceTests {
         verifyNoMoreInteractions(itemStorageMock);
     }
 
+    @Test
+    public void getAllItemsOfUserLoadsCommentsOnlyForCommentedItemsTest() {
+        Item quiet = itemMapper.toItem(createItem("Blue Apple"));
+        quiet.setId(1L);
+        Item popular = itemMapper.toItem(createItem("Green Apple"));
+        popular.setId(2L);
+        popular.setCommentCount(42);
+        popular.setLastCommentAt(LocalDateTime.of(2030, 1, 1, 12, 0));
+        Comment comment = new Comment();
+        comment.setId(7L);
+        comment.setItem(popular);
+
+        when(itemStorageMock.findByOwner(1L))
+                .thenReturn(List.of(quiet, popular));
+        when(commentStorageMock.findRecentIdsByItemIdIn(List.of(2L), ItemServiceImpl.RECENT_COMMENTS))
+                .thenReturn(List.of(7L));
+        when(commentStorageMock.findByIdInOrderByCreatedDescIdDesc(List.of(7L)))
+                .thenReturn(List.of(comment));
+
+        List<ItemDtoWithBookings> dtos = service.getAllItemsOfUser(1L);
+
+        assertEquals(0, dtos.getFirst().getCommentCount());
+        assertTrue(dtos.getFirst().getComments().isEmpty());
+        assertEquals(42, dtos.getLast().getCommentCount());
+        assertEquals(popular.getLastCommentAt(), dtos.getLast().getLastCommentAt());
+        assertEquals(1, dtos.getLast().getComments().size());
+    }
+
     @Test
     public void getAllItemsOfUserWhoHasNoItemsTest() {
         when(itemStorageMock.findByOwner(anyLong()))
@@ -232,19 +438,127 @@ public class ItemServiceTests {
 
     @Test
     public void searchItemTest() {
-        Item item = mapper.map(createItem("Blue Apple"), Item.class);
+        Item item = itemMapper.toItem(createItem("Blue Apple"));
         String text = "apple";
 
-        when(itemStorageMock.findByNameOrDescriptionContainingIgnoreCaseAndIsAvailable(text))
+        when(searchIndexMock.isReady())
+                .thenReturn(true);
+        when(searchCacheMock.search(text, 0, 20))
                 .thenReturn(List.of(item));
 
-        ItemDto foundDto = service.searchItem(text).getFirst();
+        ItemDto foundDto = service.searchItem(text, 0, 20).getFirst();
 
-        assertThat(foundDto, equalTo(mapper.map(item, ItemDto.class)));
+        assertThat(foundDto, equalTo(itemMapper.toItemDto(item)));
 
-        verify(itemStorageMock, times(1))
-                .findByNameOrDescriptionContainingIgnoreCaseAndIsAvailable(text);
-        verifyNoMoreInteractions(itemStorageMock);
+        verify(searchCacheMock, times(1))
+                .search(text, 0, 20);
+        verifyNoInteractions(itemStorageMock);
+    }
+
+    @Test
+    public void suggestItemNamesTest() {
+        when(suggestIndexMock.isReady())
+                .thenReturn(true);
+        when(suggestIndexMock.suggest("дре", 5))
+                .thenReturn(List.of("Дрель", "Дрезина"));
+
+        assertThat(service.suggestItemNames("дре", 5), equalTo(List.of("Дрель", "Дрезина")));
+        verifyNoInteractions(itemStorageMock);
+    }
+
+    @Test
+    public void searchItemQueriesDatabaseUntilIndexIsReadyTest() {
+        List<Item> items = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            Item item = itemMapper.toItem(createItem("Apple " + id));
+            item.setId(id);
+            items.add(item);
+        }
+
+        when(searchIndexMock.isReady())
+                .thenReturn(false);
+        when(itemStorageMock.findAvailableByText("apple", Limit.of(4)))
+                .thenReturn(items);
+
+        List<ItemDto> found = service.searchItem("apple", 2, 2);
+
+        assertThat(found, equalTo(List.of(itemMapper.toItemDto(items.get(2)))));
+        verifyNoInteractions(searchCacheMock);
+    }
+
+    @Test
+    public void suggestItemNamesQueriesDatabaseUntilIndexIsReadyTest() {
+        when(suggestIndexMock.isReady())
+                .thenReturn(false);
+        when(itemStorageMock.findAvailableNamesByPrefix("50\\%\\_", Limit.of(5)))
+                .thenReturn(List.of("50%_скидка"));
+
+        assertThat(service.suggestItemNames(" 50%_", 5), equalTo(List.of("50%_скидка")));
+        verify(suggestIndexMock, never()).suggest(anyString(), anyInt());
+    }
+
+    @Test
+    public void getAvailabilityTest() {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = from.plusDays(9);
+        BitSet busyDays = new BitSet();
+        busyDays.set(3, 5);
+
+        when(itemStorageMock.existsById(1L))
+                .thenReturn(true);
+        when(intervalIndexMock.isReady())
+                .thenReturn(true);
+        when(intervalIndexMock.busyDays(1L, from, to))
+                .thenReturn(busyDays);
+
+        List<AvailabilitySlotDto> slots = service.getAvailability(1L, from, to);
+
+        assertThat(slots, equalTo(List.of(
+                new AvailabilitySlotDto(from, from.plusDays(2), true),
+                new AvailabilitySlotDto(from.plusDays(3), from.plusDays(4), false),
+                new AvailabilitySlotDto(from.plusDays(5), to, true))));
+    }
+
+    @Test
+    public void getAvailabilityReadsBookingsUntilIndexIsReadyTest() {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = from.plusDays(9);
+        LocalDateTime start = from.plusDays(3).atTime(12, 0);
+
+        when(itemStorageMock.existsById(1L))
+                .thenReturn(true);
+        when(intervalIndexMock.isReady())
+                .thenReturn(false);
+        when(bookingStorageMock.findOverlappingIntervals(1L, from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(new BookingInterval(1L, 1L, start, start.plusDays(1))));
+
+        List<AvailabilitySlotDto> slots = service.getAvailability(1L, from, to);
+
+        assertThat(slots, equalTo(List.of(
+                new AvailabilitySlotDto(from, from.plusDays(2), true),
+                new AvailabilitySlotDto(from.plusDays(3), from.plusDays(4), false),
+                new AvailabilitySlotDto(from.plusDays(5), to, true))));
+        verify(intervalIndexMock, never()).busyDays(anyLong(), any(), any());
+    }
+
+    @Test
+    public void getAvailabilityWithInvalidPeriodTest() {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+
+        assertThrows(BadRequestException.class, () -> service.getAvailability(1L, from, from.minusDays(1)));
+        assertThrows(BadRequestException.class, () -> service.getAvailability(1L, from, from.plusYears(20)));
+        verifyNoInteractions(itemStorageMock, intervalIndexMock);
+    }
+
+    @Test
+    public void getAvailabilityOfNonexistentItemTest() {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+
+        when(itemStorageMock.existsById(1L))
+                .thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> service.getAvailability(1L, from, from.plusDays(1)));
     }
 
 
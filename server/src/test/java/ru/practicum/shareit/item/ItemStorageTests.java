@@ -1,9 +1,10 @@
 package ru.practicum.shareit.item;
 
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.item.dao.ItemStorage;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.ItemRequestStorage;
@@ -16,6 +17,8 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class ItemStorageTests {
@@ -25,39 +28,68 @@ public class ItemStorageTests {
     UserStorage userStorage;
     @Autowired
     ItemRequestStorage requestStorage;
-    ModelMapper mapper = new ModelMapper();
+    @Autowired
+    TestEntityManager entityManager;
 
     @Test
-    public void findItemIdByOwnerIdTest() {
+    public void existsByOwnerTest() {
         User user = createUser();
         userStorage.save(user);
 
+        assertFalse(itemStorage.existsByOwner(user.getId()));
+
         Item item = createItem();
         item.setOwner(user.getId());
         itemStorage.save(item);
 
-        List<Long> itemRetrieved = itemStorage.findItemIdByOwnerId(user.getId());
-        long itemId = itemRetrieved.getFirst();
+        assertTrue(itemStorage.existsByOwner(user.getId()));
+    }
+
+    @Test
+    public void addCommentKeepsLatestTimestampTest() {
+        User user = createUser();
+        userStorage.save(user);
 
-        assertThat(itemId, equalTo(item.getId()));
+        Item item = createItem();
+        item.setOwner(user.getId());
+        itemStorage.saveAndFlush(item);
+
+        LocalDateTime latest = LocalDateTime.of(2030, 1, 1, 12, 0);
+        itemStorage.addComment(item.getId(), latest);
+        itemStorage.addComment(item.getId(), latest.minusDays(1));
+
+        // сохранение устаревшей копии вещи не должно сбрасывать агрегаты
+        item.setName("renamed");
+        itemStorage.saveAndFlush(item);
+        entityManager.clear();
+
+        Item found = itemStorage.findById(item.getId()).orElseThrow();
+        assertThat(found.getCommentCount(), equalTo(2L));
+        assertThat(found.getLastCommentAt(), equalTo(latest));
+        assertThat(found.getName(), equalTo("renamed"));
     }
 
     @Test
-    public void findOwnerIdByItemIdTest() {
+    public void addCommentKeepsOtherEntitiesManagedTest() {
         User user = createUser();
         userStorage.save(user);
 
         Item item = createItem();
         item.setOwner(user.getId());
-        itemStorage.save(item);
+        itemStorage.saveAndFlush(item);
 
-        long ownerId = itemStorage.findOwnerIdByItemId(item.getId());
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0);
+        itemStorage.addComment(item.getId(), created);
+        itemStorage.refresh(item);
 
-        assertThat(ownerId, equalTo(user.getId()));
+        assertTrue(entityManager.getEntityManager().contains(user));
+        assertTrue(entityManager.getEntityManager().contains(item));
+        assertThat(item.getCommentCount(), equalTo(1L));
+        assertThat(item.getLastCommentAt(), equalTo(created));
     }
 
     @Test
-    public void findByNameOrDescriptionContainingIgnoreCaseAndIsAvailableTest() {
+    public void findByAvailableTrueTest() {
         User user = createUser();
         userStorage.save(user);
 
@@ -65,10 +97,66 @@ public class ItemStorageTests {
         item.setOwner(user.getId());
         itemStorage.save(item);
 
-        String text = "banana";
-        Item itemRetrieved = itemStorage.findByNameOrDescriptionContainingIgnoreCaseAndIsAvailable(text).getFirst();
+        Item unavailable = createItem();
+        unavailable.setOwner(user.getId());
+        unavailable.setAvailable(false);
+        itemStorage.save(unavailable);
+
+        List<Item> items = itemStorage.findByAvailableTrue();
 
-        assertThat(itemRetrieved.getName(), equalTo(item.getName()));
+        assertThat(items.size(), equalTo(1));
+        assertThat(items.getFirst().getId(), equalTo(item.getId()));
+    }
+
+    @Test
+    public void findAvailableByTextRanksNameMatchesFirstTest() {
+        User user = createUser();
+        userStorage.save(user);
+
+        Item inName = createItem();
+        inName.setOwner(user.getId());
+        inName.setName("Old banana");
+        itemStorage.save(inName);
+
+        Item inDescription = createItem();
+        inDescription.setOwner(user.getId());
+        inDescription.setName("Apple");
+        inDescription.setDescription("Not a BANANA");
+        itemStorage.save(inDescription);
+
+        Item unavailable = createItem();
+        unavailable.setOwner(user.getId());
+        unavailable.setAvailable(false);
+        itemStorage.save(unavailable);
+
+        List<Item> items = itemStorage.findAvailableByText("nana", Limit.of(10));
+
+        assertThat(items.stream().map(Item::getId).toList(), equalTo(List.of(inName.getId(), inDescription.getId())));
+        assertThat(itemStorage.findAvailableByText("nana", Limit.of(1)).size(), equalTo(1));
+    }
+
+    @Test
+    public void findAvailableNamesByPrefixGroupsNamesIgnoringCaseTest() {
+        User user = createUser();
+        userStorage.save(user);
+        for (String name : List.of("Дрель", "дрель ", "Дрезина", "Палатка", "Др_ова")) {
+            Item item = createItem();
+            item.setOwner(user.getId());
+            item.setName(name);
+            itemStorage.save(item);
+        }
+        Item unavailable = createItem();
+        unavailable.setOwner(user.getId());
+        unavailable.setName("Дрезина");
+        unavailable.setAvailable(false);
+        itemStorage.save(unavailable);
+
+        List<String> names = itemStorage.findAvailableNamesByPrefix("др", Limit.of(10));
+
+        assertThat(names.size(), equalTo(3));
+        assertThat(names.getFirst().toLowerCase(), equalTo("дрель"));
+        assertThat(itemStorage.findAvailableNamesByPrefix("др\\_", Limit.of(10)), equalTo(List.of("Др_ова")));
+        assertThat(itemStorage.findAvailableNamesByPrefix("др", Limit.of(1)).size(), equalTo(1));
     }
 
     @Test
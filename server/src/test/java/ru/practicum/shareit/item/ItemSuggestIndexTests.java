@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSuggestIndex;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSuggestIndexTests {
+
+    @Mock
+    ItemStorage itemStorageMock;
+    private ItemSuggestIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ItemSuggestIndex(itemStorageMock);
+    }
+
+    @Test
+    public void rebuildAndSuggestByPrefixTest() {
+        when(itemStorageMock.findByAvailableTrue())
+                .thenReturn(List.of(createItem(1L, "Дрель", true),
+                        createItem(2L, "Дрезина", true),
+                        createItem(3L, "Палатка", true)));
+
+        index.rebuild();
+
+        assertEquals(List.of("Дрезина", "Дрель"), index.suggest("дре", 10));
+        assertEquals(List.of("Дрель"), index.suggest("ДРЕЛ", 10));
+        assertEquals(List.of(), index.suggest("пила", 10));
+    }
+
+    @Test
+    public void updateDuringRebuildIsAppliedAfterSnapshotTest() throws Exception {
+        Item renamed = createItem(1L, "Перфоратор", true);
+        Thread writer = new Thread(() -> index.update(renamed));
+        // изменение фиксируется, пока построение читает устаревший снимок
+        when(itemStorageMock.findByAvailableTrue()).thenAnswer(invocation -> {
+            writer.start();
+            writer.join(200);
+            assertTrue(writer.isAlive());
+            return List.of(createItem(1L, "Дрель", true));
+        });
+
+        assertFalse(index.isReady());
+        index.rebuild();
+        writer.join();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of("Перфоратор"), index.suggest("пер", 10));
+        assertEquals(List.of(), index.suggest("дре", 10));
+    }
+
+    @Test
+    public void frequentNamesComeFirstTest() {
+        index.update(createItem(1L, "Лыжи", true));
+        index.update(createItem(2L, "Лыжные палки", true));
+        index.update(createItem(3L, "лыжные палки", true));
+        index.update(createItem(4L, "Лыжероллеры", true));
+
+        assertEquals(List.of("лыжные палки", "Лыжероллеры", "Лыжи"), index.suggest("лыж", 10));
+        assertEquals(List.of("лыжные палки"), index.suggest("лыж", 1));
+    }
+
+    @Test
+    public void updateFollowsNameAndAvailabilityTest() {
+        Item item = createItem(1L, "Велосипед", true);
+        index.update(item);
+        index.update(createItem(2L, "Весло", true));
+        assertEquals(List.of("Велосипед", "Весло"), index.suggest("ве", 10));
+
+        item.setName("Самокат");
+        index.update(item);
+        assertEquals(List.of("Весло"), index.suggest("ве", 10));
+        assertEquals(List.of("Самокат"), index.suggest("с", 10));
+
+        item.setAvailable(false);
+        index.update(item);
+        assertEquals(List.of(), index.suggest("с", 10));
+        assertEquals(List.of("Весло"), index.suggest("", 10));
+    }
+
+    @Test
+    public void suggestMatchesLinearScanTest() {
+        String[] words = {"дрель", "дрезина", "палатка", "пила", "пилка", "лыжи", "лыжные палки"};
+        Random random = new Random(5);
+        Map<Long, Item> items = new HashMap<>();
+        for (int step = 0; step < 2000; step++) {
+            long id = 1 + random.nextInt(200);
+            Item item = createItem(id, words[random.nextInt(words.length)], random.nextInt(4) > 0);
+            items.put(id, item);
+            index.update(item);
+        }
+
+        for (String prefix : List.of("", "п", "пил", "дре", "лыжн", "х")) {
+            Map<String, Integer> counts = new HashMap<>();
+            items.values().stream()
+                    .filter(Item::getAvailable)
+                    .map(i -> i.getName().toLowerCase(Locale.ROOT))
+                    .filter(name -> name.startsWith(prefix))
+                    .forEach(name -> counts.merge(name, 1, Integer::sum));
+            List<String> expected = counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(5)
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            assertEquals(expected, index.suggest(prefix, 5), prefix);
+        }
+    }
+
+    private Item createItem(long id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setOwner(1L);
+        item.setName(name);
+        item.setDescription("описание");
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.comment;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.item.dao.CommentStorage;
 import ru.practicum.shareit.item.dao.ItemStorage;
 import ru.practicum.shareit.item.model.Comment;
@@ -17,6 +20,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 public class CommentStorageTests {
@@ -27,6 +31,8 @@ public class CommentStorageTests {
     ItemStorage itemStorage;
     @Autowired
     UserStorage userStorage;
+    @Autowired
+    TestEntityManager entityManager;
 
     @Test
     public void findByItemIdTest() {
@@ -35,13 +41,13 @@ public class CommentStorageTests {
 
         long itemId = commentCreated.getItem().getId();
 
-        Comment commentFound = commentStorage.findByItemId(itemId).getFirst();
+        Comment commentFound = commentStorage.findByItemIdOrderByCreatedDescIdDesc(itemId, Limit.of(10)).getFirst();
 
         assertThat(commentCreated, equalTo(commentFound));
     }
 
     @Test
-    public void findByItemIdInTest() {
+    public void findRecentIdsByItemIdInTest() {
         Comment commentCreated1 = createComment("COOOOOOOOOL");
         commentStorage.save(commentCreated1);
 
@@ -51,19 +57,69 @@ public class CommentStorageTests {
         Comment commentCreated3 = createComment("my child doesn't understand guys");
         commentStorage.save(commentCreated3);
 
+        Comment commentCreated4 = copyOf(commentCreated1, "second");
+        commentCreated4.setCreated(commentCreated1.getCreated().plusMinutes(1));
+        commentStorage.save(commentCreated4);
+
         long itemId1 = commentCreated1.getItem().getId();
         long itemId2 = commentCreated2.getItem().getId();
 
-        List<Comment> commentsFound = commentStorage.findByItemIdIn(List.of(itemId1, itemId2));
+        List<Long> recentIds = commentStorage.findRecentIdsByItemIdIn(List.of(itemId1, itemId2), 1);
+        assertEquals(2, recentIds.size());
+        assertTrue(recentIds.containsAll(List.of(commentCreated4.getId(), commentCreated2.getId())));
 
-        assertEquals(2, commentsFound.size());
+        List<Comment> commentsFound = commentStorage.findByIdInOrderByCreatedDescIdDesc(
+                commentStorage.findRecentIdsByItemIdIn(List.of(itemId1, itemId2), 10));
+        assertEquals(3, commentsFound.size());
         assertFalse(commentsFound.contains(commentCreated3));
     }
 
+    @Test
+    public void findByItemIdBeforeTest() {
+        Comment first = createComment("first");
+        first.setCreated(LocalDateTime.of(2030, 1, 1, 10, 0));
+        commentStorage.save(first);
+        Comment second = copyOf(first, "second");
+        commentStorage.save(second);
+        Comment third = copyOf(first, "third");
+        third.setCreated(first.getCreated().plusHours(1));
+        commentStorage.save(third);
+        long itemId = first.getItem().getId();
+
+        List<Comment> page = commentStorage.findByItemIdOrderByCreatedDescIdDesc(itemId, Limit.of(2));
+        assertEquals(List.of(third, second), page);
+
+        List<Comment> next = commentStorage.findByItemIdBefore(itemId, second.getCreated(), second.getId(), Limit.of(2));
+        assertEquals(List.of(first), next);
+    }
+
+    @Test
+    public void findByItemIdFetchesItemAndAuthorTest() {
+        Comment commentCreated = createComment("COOOOOOOOOL");
+        commentStorage.save(commentCreated);
+        entityManager.flush();
+        entityManager.clear();
+
+        Comment commentFound = commentStorage.findByItemIdOrderByCreatedDescIdDesc(commentCreated.getItem().getId(),
+                Limit.of(1)).getFirst();
+
+        assertTrue(Hibernate.isInitialized(commentFound.getAuthor()));
+        assertTrue(Hibernate.isInitialized(commentFound.getItem()));
+    }
+
+    private Comment copyOf(Comment comment, String text) {
+        Comment copy = new Comment();
+        copy.setItem(comment.getItem());
+        copy.setAuthor(comment.getAuthor());
+        copy.setText(text);
+        copy.setCreated(comment.getCreated());
+        return copy;
+    }
+
     private Comment createComment(String text) {
         User author = new User();
         author.setName("Test Masha");
-        author.setEmail("gjjh@ee.test");
+        author.setEmail("gjjh" + System.nanoTime() + "@ee.test");
         userStorage.save(author);
 
         Item item = new Item();
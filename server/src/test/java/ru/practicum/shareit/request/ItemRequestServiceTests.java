@@ -5,16 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemStorage;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
 import ru.practicum.shareit.request.dao.ItemRequestStorage;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoWithItems;
+import ru.practicum.shareit.request.mapper.RequestMapper;
+import ru.practicum.shareit.request.mapper.RequestMapperImpl;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.dao.UserStorage;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -34,11 +37,12 @@ public class ItemRequestServiceTests {
     @Mock
     ItemRequestStorage requestStorageMock;
     private ItemRequestService service;
-    private final ModelMapper mapper = new ModelMapper();
+    private final RequestMapper requestMapper = new RequestMapperImpl(new UserMapperImpl());
 
     @BeforeEach
     public void setUp() {
-        service = new ItemRequestServiceImpl(mapper,
+        service = new ItemRequestServiceImpl(new RequestMapperImpl(new UserMapperImpl()),
+                new ItemMapperImpl(),
                 userStorageMock,
                 itemStorageMock,
                 requestStorageMock);
@@ -52,7 +56,7 @@ public class ItemRequestServiceTests {
         when(userStorageMock.findById(user.getId()))
                 .thenReturn(Optional.of(user));
         when(requestStorageMock.save(any(Request.class)))
-                .thenReturn(mapper.map(request, Request.class));
+                .thenReturn(requestMapper.toRequest(request));
 
         RequestDtoWithItems dto = service.createRequest(request, user.getId());
 
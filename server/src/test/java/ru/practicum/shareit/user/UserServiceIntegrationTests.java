@@ -58,5 +58,18 @@ public class UserServiceIntegrationTests {
 
         assertThrows(ConflictException.class, () -> service.updateUser(request3, dto2.getId()));
     }
+
+    @Test
+    public void createUserWithEmailInOtherCaseTest() {
+        CreateUserDto request1 = new CreateUserDto();
+        request1.setName("Alla Pugacheva");
+        request1.setEmail("Arlekino@ah.com");
+        service.createUser(request1);
+
+        CreateUserDto request2 = new CreateUserDto();
+        request2.setName("Maxim Galkin");
+        request2.setEmail("ARLEKINO@AH.COM");
+        assertThrows(ConflictException.class, () -> service.createUser(request2));
+    }
 }
 
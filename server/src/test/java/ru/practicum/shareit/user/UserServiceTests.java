@@ -5,16 +5,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.user.dao.UserStorage;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,11 +33,11 @@ public class UserServiceTests {
     @Mock
     UserStorage userStorageMock;
     private UserService service;
-    private final ModelMapper mapper = new ModelMapper();
+    private final UserMapper userMapper = new UserMapperImpl();
 
     @BeforeEach
     public void setUp() {
-        service = new UserServiceImpl(mapper, userStorageMock);
+        service = new UserServiceImpl(new UserMapperImpl(), userStorageMock);
     }
 
     @Test
@@ -41,17 +45,18 @@ public class UserServiceTests {
         CreateUserDto request = new CreateUserDto();
         request.setName("Ekaterina Ivanova");
         request.setEmail("poPP@mail.test");
-        User user = mapper.map(request, User.class);
+        User user = userMapper.toUser(request);
 
-        when(userStorageMock.save(any(User.class)))
+        when(userStorageMock.saveAndFlush(any(User.class)))
                 .thenReturn(user);
 
         UserDto userDto = service.createUser(request);
 
-        assertThat(userDto, equalTo(mapper.map(user, UserDto.class)));
+        assertThat(userDto, equalTo(userMapper.toUserDto(user)));
 
         verify(userStorageMock, times(1))
-                .save(any(User.class));
+                .saveAndFlush(any(User.class));
+        verifyNoMoreInteractions(userStorageMock);
     }
 
     @Test
@@ -59,39 +64,46 @@ public class UserServiceTests {
         CreateUserDto request = new CreateUserDto();
         request.setName("Ekaterina Ivanova");
         request.setEmail("poPP@mail.test");
-        User user = mapper.map(request, User.class);
 
-        when(userStorageMock.findByEmailLike("poPP@mail.test").isPresent())
-                .thenThrow(new ConflictException("Данный email уже занят другим пользователем"));
+        when(userStorageMock.saveAndFlush(any(User.class)))
+                .thenThrow(emailViolation());
 
         assertThrows(ConflictException.class, () -> service.createUser(request));
     }
 
+    @Test
+    public void createUserWithOtherViolationTest() {
+        CreateUserDto request = new CreateUserDto();
+        request.setEmail("poPP@mail.test");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("name is null",
+                new ConstraintViolationException("name is null", new SQLException(), null));
+
+        when(userStorageMock.saveAndFlush(any(User.class)))
+                .thenThrow(violation);
+
+        assertThrows(DataIntegrityViolationException.class, () -> service.createUser(request));
+    }
+
     @Test
     public void updateUserTest() {
         UpdateUserDto request = new UpdateUserDto();
         request.setName("Matthew McConaughey");
         request.setEmail("poPP@mail.test");
-        User user = mapper.map(request, User.class);
-        user.setId(1L);
+        User user = createUser(1L, request.getName(), request.getEmail());
 
         when(userStorageMock.findById(1L))
                 .thenReturn(Optional.of(user));
-        when(userStorageMock.findByEmailLikeAndIdNot(anyString(), anyLong()))
-                .thenReturn(Optional.empty());
-        when(userStorageMock.save(any(User.class)))
+        when(userStorageMock.saveAndFlush(any(User.class)))
                 .thenReturn(user);
 
         UserDto userDto = service.updateUser(request, 1);
 
-        assertThat(userDto, equalTo(mapper.map(user, UserDto.class)));
+        assertThat(userDto, equalTo(userMapper.toUserDto(user)));
 
         verify(userStorageMock, times(1))
                 .findById(anyLong());
         verify(userStorageMock, times(1))
-                .findByEmailLikeAndIdNot(anyString(), anyLong());
-        verify(userStorageMock, times(1))
-                .save(any(User.class));
+                .saveAndFlush(any(User.class));
 
         verifyNoMoreInteractions(userStorageMock);
     }
@@ -102,14 +114,13 @@ public class UserServiceTests {
         request.setName("Ekaterina Ivanova");
         request.setEmail("poPP@mail.test");
 
-        User user = mapper.map(request, User.class);
-        user.setId(2L);
+        User user = createUser(2L, request.getName(), request.getEmail());
 
         when(userStorageMock.findById(2L))
                 .thenReturn(Optional.of(user));
 
-        when(userStorageMock.findByEmailLikeAndIdNot("poPP@mail.test", 2L))
-                .thenThrow(new ConflictException("Данный email уже занят другим пользователем"));
+        when(userStorageMock.saveAndFlush(user))
+                .thenThrow(emailViolation());
 
         assertThrows(ConflictException.class, () -> service.updateUser(request, 2L));
     }
@@ -120,15 +131,14 @@ public class UserServiceTests {
         request.setName("Julianne Moore");
         request.setEmail("iuoOOO324TGHhh@mail.test");
 
-        User user = mapper.map(request, User.class);
-        user.setId(1L);
+        User user = createUser(1L, request.getName(), request.getEmail());
 
         when(userStorageMock.findById(1L))
                 .thenReturn(Optional.of(user));
 
         UserDto userDto = service.getUserById(1L);
 
-        assertThat(userDto, equalTo(mapper.map(user, UserDto.class)));
+        assertThat(userDto, equalTo(userMapper.toUserDto(user)));
 
         verify(userStorageMock, times(1))
                 .findById(1L);
@@ -139,12 +149,12 @@ public class UserServiceTests {
         CreateUserDto request1 = new CreateUserDto();
         request1.setName("Julianne Moore");
         request1.setEmail("poPP@mail.test");
-        User user1 = mapper.map(request1, User.class);
+        User user1 = userMapper.toUser(request1);
 
         CreateUserDto request2 = new CreateUserDto();
         request2.setName("Gillian Anderson");
         request2.setEmail("iuoOOO324TGHhh@mail.test");
-        User user2 = mapper.map(request2, User.class);
+        User user2 = userMapper.toUser(request2);
 
         List<User> allUsers = List.of(user1, user2);
 
@@ -153,7 +163,7 @@ public class UserServiceTests {
 
         List<UserDto> allDtos = service.getAllUsers();
         for (int i = 0; i < allUsers.size(); i++) {
-            assertThat(allDtos.get(i), equalTo(mapper.map(allUsers.get(i), UserDto.class)));
+            assertThat(allDtos.get(i), equalTo(userMapper.toUserDto(allUsers.get(i))));
         }
 
         verify(userStorageMock, times(1)).findAll();
@@ -168,4 +178,17 @@ public class UserServiceTests {
         verify(userStorageMock, times(1)).deleteById(1L);
     }
 
+
+    private DataIntegrityViolationException emailViolation() {
+        return new DataIntegrityViolationException("duplicate email", new ConstraintViolationException(
+                "duplicate email", new SQLException(), "PUBLIC.UQ_USER_EMAIL_INDEX_4"));
+    }
+
+    private User createUser(long id, String name, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
 }
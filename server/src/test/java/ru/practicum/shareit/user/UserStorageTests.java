@@ -3,15 +3,13 @@ package ru.practicum.shareit.user;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.user.dao.UserStorage;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.Optional;
-
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 public class UserStorageTests {
@@ -19,37 +17,30 @@ public class UserStorageTests {
     private UserStorage storage;
 
     @Test
-    public void findByEmailLikeTest() {
-        User user1 = new User();
-        user1.setName("Ekaterina Ivanova");
-        user1.setEmail("poPP@mail.test");
+    public void emailKeyIsLowerCaseTest() {
+        User user = new User();
+        user.setName("Ekaterina Ivanova");
+        user.setEmail("poPP@mail.test");
 
-        storage.save(user1);
+        storage.saveAndFlush(user);
 
-        Optional<User> foundUser = storage.findByEmailLike("poPP@mail.test");
-
-        assertThat(foundUser.isPresent(), equalTo(true));
-        assertThat(foundUser.get(), equalTo(user1));
+        User found = storage.findById(user.getId()).orElseThrow();
+        assertThat(found.getEmail(), equalTo("poPP@mail.test"));
+        assertThat(found.getEmailKey(), equalTo("popp@mail.test"));
     }
 
     @Test
-    public void findByEmailLikeAndIdNotTest() {
+    public void emailIsUniqueIgnoringCaseTest() {
         User user1 = new User();
         user1.setName("Ekaterina Ivanova");
         user1.setEmail("poPP@mail.test");
 
-        storage.save(user1);
+        storage.saveAndFlush(user1);
 
         User user2 = new User();
         user2.setName("Matthew McConaughey");
-        user2.setEmail("ghhGIYGn@mail.test");
-
-        storage.save(user2);
-
-        Optional<User> foundUser = storage.findByEmailLikeAndIdNot("poPP@mail.test", user2.getId());
-        assertTrue(foundUser.isPresent());
+        user2.setEmail("POPP@mail.test");
 
-        Optional<User> userNotFound = storage.findByEmailLikeAndIdNot("ghhGIYGn@mail.test", user2.getId());
-        assertFalse(userNotFound.isPresent());
+        assertThrows(DataIntegrityViolationException.class, () -> storage.saveAndFlush(user2));
     }
-}
\ No newline at end of file
+}